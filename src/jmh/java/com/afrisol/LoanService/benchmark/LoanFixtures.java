@@ -0,0 +1,50 @@
+package com.afrisol.LoanService.benchmark;
+
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+final class LoanFixtures {
+
+    private LoanFixtures() {
+    }
+
+    static LoanRequestDTO loanRequest() {
+        return LoanRequestDTO.builder()
+                .startDate(LocalDate.now())
+                .loanEndDate(LocalDate.now().plusDays(365))
+                .totalLoanAmount(new BigDecimal("125000.00"))
+                .loanInterestRate(new BigDecimal("12.50"))
+                .amountReceived(new BigDecimal("4250.75"))
+                .targetCompletionDate(LocalDate.now().plusDays(300))
+                .payOffDate(LocalDate.now().plusDays(310))
+                .dailyRate(new BigDecimal("375.00"))
+                .productId("SOLAR-HOME-200W")
+                .customerId("CUST-000184467")
+                .status(Status.ACTIVE)
+                .build();
+    }
+
+    static Loan loan() {
+        Loan loan = Loan.builder()
+                .loanId(184467)
+                .version(7L)
+                .build();
+        LoanRequestDTO request = loanRequest();
+        loan.setStartDate(request.getStartDate());
+        loan.setLoanEndDate(request.getLoanEndDate());
+        loan.setTotalLoanAmount(request.getTotalLoanAmount());
+        loan.setLoanInterestRate(request.getLoanInterestRate());
+        loan.setAmountReceived(request.getAmountReceived());
+        loan.setTargetCompletionDate(request.getTargetCompletionDate());
+        loan.setPayOffDate(request.getPayOffDate());
+        loan.setDailyRate(request.getDailyRate());
+        loan.setProductId(request.getProductId());
+        loan.setCustomerId(request.getCustomerId());
+        loan.setStatus(request.getStatus());
+        return loan;
+    }
+}
@@ -0,0 +1,81 @@
+package com.afrisol.LoanService.benchmark;
+
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.service.LoanMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private LoanResponseDTO response;
+    private LoanView view;
+    private byte[] requestJson;
+    private byte[] responseJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Matches the mapper Boot's JacksonAutoConfiguration gives the WebFlux codecs: JavaTimeModule, and ISO
+        // dates because Boot (not the builder) turns off WRITE_DATES_AS_TIMESTAMPS
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        response = LoanMapper.toResponse(LoanFixtures.loan());
+        view = LoanMapper.toView(LoanFixtures.loan());
+        requestJson = objectMapper.writeValueAsBytes(LoanFixtures.loanRequest());
+        responseJson = objectMapper.writeValueAsBytes(response);
+        // The two encoders are only comparable while they write the same payload
+        if (!Arrays.equals(responseJson, objectMapper.writeValueAsBytes(view))) {
+            throw new IllegalStateException("LoanView and LoanResponseDTO encode differently");
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Same JSON as encodeResponse, written by LoanViewSerializer from longs and pre-encoded field names
+    @Benchmark
+    public byte[] encodeView() throws IOException {
+        return objectMapper.writeValueAsBytes(view);
+    }
+
+    @Benchmark
+    public LoanResponseDTO decodeResponse() throws IOException {
+        return objectMapper.readValue(responseJson, LoanResponseDTO.class);
+    }
+
+    @Benchmark
+    public LoanRequestDTO decodeRequest() throws IOException {
+        return objectMapper.readValue(requestJson, LoanRequestDTO.class);
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(LoanFixtures.loanRequest());
+    }
+}
@@ -0,0 +1,46 @@
+package com.afrisol.LoanService.benchmark;
+
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.service.LoanMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanMappingBenchmark {
+
+    private LoanRequestDTO request;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        request = LoanFixtures.loanRequest();
+        loan = LoanFixtures.loan();
+    }
+
+    @Benchmark
+    public Loan requestToEntity() {
+        return LoanMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public LoanResponseDTO entityToResponse() {
+        return LoanMapper.toResponse(loan);
+    }
+}
@@ -0,0 +1,49 @@
+package com.afrisol.LoanService.benchmark;
+
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanValidationBenchmark {
+
+    private Validator validator;
+    private LoanRequestDTO validRequest;
+    private LoanRequestDTO invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        validRequest = LoanFixtures.loanRequest();
+        invalidRequest = LoanRequestDTO.builder().productId("SOLAR-HOME-200W").build();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoanRequestDTO>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoanRequestDTO>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
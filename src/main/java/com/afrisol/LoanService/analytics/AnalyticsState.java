@@ -0,0 +1,80 @@
+package com.afrisol.LoanService.analytics;
+
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Per-loan figures plus running totals per status, product and customer, all as of one accrual date
+class AnalyticsState {
+
+    final LocalDate asOf;
+    final Map<Integer, Loan> loans = new HashMap<>();
+    final Map<Integer, LoanFigures> figures = new HashMap<>();
+    final PortfolioTotals total = new PortfolioTotals();
+    final Map<Status, PortfolioTotals> byStatus = new EnumMap<>(Status.class);
+    final Map<String, PortfolioTotals> byProduct = new HashMap<>();
+    final Map<String, PortfolioTotals> byCustomer = new HashMap<>();
+
+    AnalyticsState(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    void put(Loan loan) {
+        Loan current = loans.get(loan.getLoanId());
+        // Notifications of concurrent writes can arrive out of order; never replace a newer version with an older one
+        if (current != null && current.getVersion() != null && loan.getVersion() != null
+                && current.getVersion() > loan.getVersion()) {
+            return;
+        }
+        remove(loan.getLoanId());
+        LoanFigures loanFigures = LoanFigures.of(loan, asOf);
+        loans.put(loan.getLoanId(), loan);
+        figures.put(loan.getLoanId(), loanFigures);
+        total.add(loanFigures);
+        forEachGroup(loanFigures, totals -> totals.add(loanFigures));
+    }
+
+    void remove(Integer loanId) {
+        loans.remove(loanId);
+        LoanFigures loanFigures = figures.remove(loanId);
+        if (loanFigures == null) {
+            return;
+        }
+        total.remove(loanFigures);
+        forEachGroup(loanFigures, totals -> totals.remove(loanFigures));
+        dropIfEmpty(byStatus, loanFigures.status());
+        dropIfEmpty(byProduct, loanFigures.productId());
+        dropIfEmpty(byCustomer, loanFigures.customerId());
+    }
+
+    private void forEachGroup(LoanFigures loanFigures, Consumer<PortfolioTotals> action) {
+        if (loanFigures.status() != null) {
+            action.accept(byStatus.computeIfAbsent(loanFigures.status(), newTotals()));
+        }
+        if (loanFigures.productId() != null) {
+            action.accept(byProduct.computeIfAbsent(loanFigures.productId(), newTotals()));
+        }
+        if (loanFigures.customerId() != null) {
+            action.accept(byCustomer.computeIfAbsent(loanFigures.customerId(), newTotals()));
+        }
+    }
+
+    private static <K> Function<K, PortfolioTotals> newTotals() {
+        return key -> new PortfolioTotals();
+    }
+
+    private static <K> void dropIfEmpty(Map<K, PortfolioTotals> group, K key) {
+        if (key != null) {
+            PortfolioTotals totals = group.get(key);
+            if (totals != null && totals.isEmpty()) {
+                group.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.afrisol.LoanService.analytics;
+
+import com.afrisol.LoanService.config.AnalyticsProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.PortfolioAnalyticsDTO;
+import com.afrisol.LoanService.dto.PortfolioTotalsDTO;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class LoanAnalyticsEngine {
+
+    private static final Duration FEED_RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration FEED_RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final LoanRepository loanRepository;
+    private final LoanOutbox loanOutbox;
+    private final LoanChangeFeed loanChangeFeed;
+    private final AnalyticsProperties properties;
+    private final Clock clock;
+
+    private AnalyticsState state;
+    // Writes seen while a rebuild is running, replayed onto the rebuilt state before it is installed
+    private Map<Integer, Optional<Loan>> changedDuringRebuild;
+    private Disposable follower;
+
+    @Autowired
+    public LoanAnalyticsEngine(LoanRepository loanRepository, LoanOutbox loanOutbox, LoanChangeFeed loanChangeFeed,
+                               AnalyticsProperties properties) {
+        this(loanRepository, loanOutbox, loanChangeFeed, properties, Clock.system(properties.getZone()));
+    }
+
+    LoanAnalyticsEngine(LoanRepository loanRepository, LoanOutbox loanOutbox, LoanChangeFeed loanChangeFeed,
+                        AnalyticsProperties properties, Clock clock) {
+        this.loanRepository = loanRepository;
+        this.loanOutbox = loanOutbox;
+        this.loanChangeFeed = loanChangeFeed;
+        this.properties = properties;
+        this.clock = clock;
+        this.state = new AnalyticsState(LocalDate.now(clock));
+    }
+
+    // Every instance follows the committed change feed rather than its own writes, so all of them converge on the
+    // same figures. The feed position is read before the table, and replaying events the rebuild already saw is
+    // harmless because older versions never replace newer ones
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        follower = Mono.defer(loanOutbox::lastPosition)
+                .retryWhen(feedRetry())
+                .flatMap(position -> startupRebuild().thenReturn(position))
+                .flatMapMany(this::follow)
+                .subscribe(null, e -> log.error("Loan analytics stopped following changes: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (follower != null) {
+            follower.dispose();
+        }
+    }
+
+    // Full pass over the table, at startup and on every accrual
+    public Mono<Void> rebuild() {
+        return rebuildFrom(loanRepository.streamLoans(new LoanFilterDTO(), properties.getFetchSize()));
+    }
+
+    // Re-reading the table, rather than rolling the in-memory copies forward, also repairs anything this
+    // instance missed while it could not read the feed
+    @Scheduled(cron = "${loan.analytics.accrual-cron:0 5 0 * * *}", zone = "${loan.analytics.zone:UTC}")
+    public Mono<Void> accrue() {
+        return rebuild();
+    }
+
+    Flux<LoanChangeEventDTO> follow(long since) {
+        AtomicLong offset = new AtomicLong(since);
+        return Flux.defer(() -> loanChangeFeed.stream(offset.get()))
+                .doOnNext(event -> {
+                    apply(event);
+                    offset.set(event.getOffset());
+                })
+                .retryWhen(feedRetry());
+    }
+
+    synchronized void apply(LoanChangeEventDTO event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                if (event.getLoan() != null) {
+                    loanSaved(toLoan(event.getLoan()));
+                }
+            }
+            case DELETED, ARCHIVED -> loanDeleted(event.getLoanId());
+        }
+    }
+
+    synchronized void loanSaved(Loan loan) {
+        if (loan == null || loan.getLoanId() == null) {
+            return;
+        }
+        state.put(loan);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(loan.getLoanId(), Optional.of(loan));
+        }
+    }
+
+    synchronized void loanDeleted(Integer loanId) {
+        state.remove(loanId);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(loanId, Optional.empty());
+        }
+    }
+
+    public synchronized PortfolioAnalyticsDTO getPortfolio() {
+        Map<Status, PortfolioTotalsDTO> byStatus = new LinkedHashMap<>();
+        state.byStatus.forEach((status, totals) -> byStatus.put(status, totals.toDTO()));
+        return PortfolioAnalyticsDTO.builder()
+                .asOf(state.asOf)
+                .total(state.total.toDTO())
+                .byStatus(byStatus)
+                .build();
+    }
+
+    public synchronized Map<String, PortfolioTotalsDTO> getProductTotals() {
+        Map<String, PortfolioTotalsDTO> byProduct = new HashMap<>();
+        state.byProduct.forEach((productId, totals) -> byProduct.put(productId, totals.toDTO()));
+        return byProduct;
+    }
+
+    public synchronized Optional<PortfolioTotalsDTO> getProductTotals(String productId) {
+        return Optional.ofNullable(state.byProduct.get(productId)).map(PortfolioTotals::toDTO);
+    }
+
+    public synchronized Optional<PortfolioTotalsDTO> getCustomerTotals(String customerId) {
+        return Optional.ofNullable(state.byCustomer.get(customerId)).map(PortfolioTotals::toDTO);
+    }
+
+    private Mono<Void> startupRebuild() {
+        if (!properties.isRebuildOnStartup()) {
+            return Mono.empty();
+        }
+        // The feed is still followed when the rebuild fails; the next accrual rebuilds again
+        return rebuild().onErrorResume(e -> {
+            log.error("Loan analytics rebuild failed: {}", e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private static Retry feedRetry() {
+        return Retry.backoff(Long.MAX_VALUE, FEED_RETRY_MIN_BACKOFF)
+                .maxBackoff(FEED_RETRY_MAX_BACKOFF)
+                .doBeforeRetry(signal -> log.warn("Loan analytics change feed failed: {}", signal.failure().getMessage()));
+    }
+
+    private static Loan toLoan(LoanResponseDTO loan) {
+        return Loan.builder()
+                .loanId(loan.getLoanId())
+                .startDate(loan.getStartDate())
+                .loanEndDate(loan.getLoanEndDate())
+                .totalLoanAmount(loan.getTotalLoanAmount())
+                .loanInterestRate(loan.getLoanInterestRate())
+                .amountReceived(loan.getAmountReceived())
+                .targetCompletionDate(loan.getTargetCompletionDate())
+                .payOffDate(loan.getPayOffDate())
+                .dailyRate(loan.getDailyRate())
+                .productId(loan.getProductId())
+                .customerId(loan.getCustomerId())
+                .status(loan.getStatus())
+                .version(loan.getVersion())
+                .build();
+    }
+
+    private Mono<Void> rebuildFrom(Flux<Loan> loans) {
+        return Mono.defer(() -> {
+            LocalDate asOf = LocalDate.now(clock);
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            return loans
+                    .reduce(new AnalyticsState(asOf), (rebuilt, loan) -> {
+                        rebuilt.put(loan);
+                        return rebuilt;
+                    })
+                    .doOnNext(this::install)
+                    .doFinally(signal -> clearChanges())
+                    .then();
+        });
+    }
+
+    private synchronized void install(AnalyticsState rebuilt) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.forEach((loanId, loan) -> loan.ifPresentOrElse(rebuilt::put, () -> rebuilt.remove(loanId)));
+        }
+        state = rebuilt;
+        log.info("Loan analytics rebuilt for {} loans as of {}", rebuilt.loans.size(), rebuilt.asOf);
+    }
+
+    private synchronized void clearChanges() {
+        changedDuringRebuild = null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.afrisol.LoanService.analytics;
+
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+record LoanFigures(Status status,
+                   String productId,
+                   String customerId,
+                   BigDecimal principal,
+                   BigDecimal received,
+                   BigDecimal accruedInterest,
+                   BigDecimal outstandingBalance,
+                   long daysInArrears) {
+
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    static LoanFigures of(Loan loan, LocalDate asOf) {
+        BigDecimal principal = orZero(loan.getTotalLoanAmount());
+        BigDecimal received = orZero(loan.getAmountReceived());
+        boolean active = loan.getStatus() == Status.ACTIVE;
+
+        // Simple interest on the principal, ACT/365, from start until today, the end date or payoff, whichever is first
+        long accrualDays = active ? daysBetween(loan.getStartDate(), earliest(asOf, loan.getLoanEndDate(), loan.getPayOffDate())) : 0;
+        BigDecimal accruedInterest = principal
+                .multiply(orZero(loan.getLoanInterestRate()))
+                .multiply(BigDecimal.valueOf(accrualDays))
+                .divide(HUNDRED.multiply(DAYS_PER_YEAR), 2, RoundingMode.HALF_EVEN);
+
+        BigDecimal outstanding = loan.getStatus() == Status.CANCELLED
+                ? BigDecimal.ZERO
+                : principal.add(accruedInterest).subtract(received).max(BigDecimal.ZERO);
+
+        long daysInArrears = active && outstanding.signum() > 0
+                ? daysInArrears(loan, asOf, received, principal.add(accruedInterest))
+                : 0;
+
+        return new LoanFigures(loan.getStatus(), loan.getProductId(), loan.getCustomerId(),
+                principal, received, accruedInterest, outstanding, daysInArrears);
+    }
+
+    // Days past the target completion date, or the days of dailyRate instalments missed so far, whichever is larger
+    private static long daysInArrears(Loan loan, LocalDate asOf, BigDecimal received, BigDecimal totalDue) {
+        long pastTarget = daysBetween(loan.getTargetCompletionDate(), asOf);
+        BigDecimal dailyRate = orZero(loan.getDailyRate());
+        if (dailyRate.signum() <= 0) {
+            return pastTarget;
+        }
+        BigDecimal expected = dailyRate.multiply(BigDecimal.valueOf(daysBetween(loan.getStartDate(), asOf))).min(totalDue);
+        BigDecimal shortfall = expected.subtract(received);
+        long missedInstalments = shortfall.signum() > 0
+                ? shortfall.divide(dailyRate, 0, RoundingMode.CEILING).longValue()
+                : 0;
+        return Math.max(pastTarget, missedInstalments);
+    }
+
+    private static long daysBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            return 0;
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(from, to));
+    }
+
+    private static LocalDate earliest(LocalDate asOf, LocalDate... dates) {
+        LocalDate earliest = asOf;
+        for (LocalDate date : dates) {
+            if (date != null && date.isBefore(earliest)) {
+                earliest = date;
+            }
+        }
+        return earliest;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
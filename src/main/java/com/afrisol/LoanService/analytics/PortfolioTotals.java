@@ -0,0 +1,57 @@
+package com.afrisol.LoanService.analytics;
+
+import com.afrisol.LoanService.dto.PortfolioTotalsDTO;
+
+import java.math.BigDecimal;
+
+// Mutable running totals; always accessed under the engine's lock
+class PortfolioTotals {
+
+    private long loanCount;
+    private BigDecimal totalPrincipal = BigDecimal.ZERO;
+    private BigDecimal totalReceived = BigDecimal.ZERO;
+    private BigDecimal accruedInterest = BigDecimal.ZERO;
+    private BigDecimal outstandingBalance = BigDecimal.ZERO;
+    private long loansInArrears;
+    private BigDecimal outstandingInArrears = BigDecimal.ZERO;
+
+    void add(LoanFigures figures) {
+        apply(figures, 1);
+    }
+
+    void remove(LoanFigures figures) {
+        apply(figures, -1);
+    }
+
+    boolean isEmpty() {
+        return loanCount == 0;
+    }
+
+    PortfolioTotalsDTO toDTO() {
+        return PortfolioTotalsDTO.builder()
+                .loanCount(loanCount)
+                .totalPrincipal(totalPrincipal)
+                .totalReceived(totalReceived)
+                .accruedInterest(accruedInterest)
+                .outstandingBalance(outstandingBalance)
+                .loansInArrears(loansInArrears)
+                .outstandingInArrears(outstandingInArrears)
+                .build();
+    }
+
+    private void apply(LoanFigures figures, int sign) {
+        loanCount += sign;
+        totalPrincipal = totalPrincipal.add(signed(figures.principal(), sign));
+        totalReceived = totalReceived.add(signed(figures.received(), sign));
+        accruedInterest = accruedInterest.add(signed(figures.accruedInterest(), sign));
+        outstandingBalance = outstandingBalance.add(signed(figures.outstandingBalance(), sign));
+        if (figures.daysInArrears() > 0) {
+            loansInArrears += sign;
+            outstandingInArrears = outstandingInArrears.add(signed(figures.outstandingBalance(), sign));
+        }
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+}
@@ -0,0 +1,27 @@
+package com.afrisol.LoanService.cache;
+
+import com.afrisol.LoanService.dto.LoanView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+public class CaffeineLoanCache implements LoanCache {
+
+    private final AsyncCache<Integer, LoanView> cache;
+
+    public CaffeineLoanCache(AsyncCache<Integer, LoanView> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<LoanView> get(Integer loanId, Function<Integer, Mono<LoanView>> loader) {
+        // Concurrent misses share one in-flight future; cancelling one subscriber must not cancel it for the rest
+        return Mono.fromFuture(() -> cache.get(loanId, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    @Override
+    public void invalidate(Integer loanId) {
+        cache.synchronous().invalidate(loanId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.afrisol.LoanService.cache;
+
+import com.afrisol.LoanService.dto.LoanView;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+public interface LoanCache {
+    Mono<LoanView> get(Integer loanId, Function<Integer, Mono<LoanView>> loader);
+
+    void invalidate(Integer loanId);
+}
@@ -0,0 +1,75 @@
+package com.afrisol.LoanService.cache;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The writing instance evicts on commit; every other instance evicts when the write reaches the change feed, so a
+// cached loan (and the ETag built from it) outlives a write elsewhere only until the relay publishes it
+@Component
+@Slf4j
+public class LoanCacheInvalidator {
+
+    private static final Duration FEED_RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration FEED_RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final LoanCache loanCache;
+    private final LoanOutbox loanOutbox;
+    private final LoanChangeFeed loanChangeFeed;
+
+    private Disposable follower;
+
+    public LoanCacheInvalidator(LoanCache loanCache, LoanOutbox loanOutbox, LoanChangeFeed loanChangeFeed) {
+        this.loanCache = loanCache;
+        this.loanOutbox = loanOutbox;
+        this.loanChangeFeed = loanChangeFeed;
+    }
+
+    // The cache starts empty, so only events relayed after startup can make an entry stale
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        follower = Mono.defer(loanOutbox::lastPosition)
+                .retryWhen(feedRetry())
+                .flatMapMany(this::follow)
+                .subscribe(null, e -> log.error("Loan cache stopped following changes: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (follower != null) {
+            follower.dispose();
+        }
+    }
+
+    Flux<LoanChangeEventDTO> follow(long since) {
+        AtomicLong offset = new AtomicLong(since);
+        return Flux.defer(() -> loanChangeFeed.stream(offset.get()))
+                .doOnNext(event -> {
+                    // A miss is never cached, so a new loan cannot have a stale entry
+                    if (event.getType() != LoanEventType.CREATED) {
+                        loanCache.invalidate(event.getLoanId());
+                    }
+                    offset.set(event.getOffset());
+                })
+                .retryWhen(feedRetry());
+    }
+
+    private static Retry feedRetry() {
+        return Retry.backoff(Long.MAX_VALUE, FEED_RETRY_MIN_BACKOFF)
+                .maxBackoff(FEED_RETRY_MAX_BACKOFF)
+                .doBeforeRetry(signal -> log.warn("Loan cache change feed failed: {}", signal.failure().getMessage()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.ZoneId;
+
+@Data
+@ConfigurationProperties(prefix = "loan.analytics")
+public class AnalyticsProperties {
+    private boolean rebuildOnStartup = true;
+    private int fetchSize = 1000;
+    private String accrualCron = "0 5 0 * * *";
+    private ZoneId zone = ZoneId.of("UTC");
+}
@@ -0,0 +1,16 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.archive")
+public class ArchiveProperties {
+    private boolean enabled = true;
+    private String cron = "0 30 1 * * *";
+    private Duration retention = Duration.ofDays(90);
+    private int batchSize = 1000;
+    private int maxBatches = 1000;
+}
@@ -0,0 +1,12 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "loan.bulk")
+public class BulkIngestionProperties {
+    private int chunkSize = 500;
+    private int maxItems = 50000;
+    private int transitionChunkSize = 1000;
+}
@@ -0,0 +1,16 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.concurrency.retry")
+public class ConcurrencyRetryProperties {
+    private boolean enabled = true;
+    private int maxAttempts = 3;
+    private Duration minBackoff = Duration.ofMillis(10);
+    private Duration maxBackoff = Duration.ofMillis(200);
+    private double jitter = 0.5;
+}
@@ -0,0 +1,72 @@
+package com.afrisol.LoanService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@Slf4j
+public class ConnectionPoolConfig {
+
+    @Bean
+    public static OrderedBeanPostProcessor connectionFactoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory && !(bean instanceof MeteredConnectionFactory)) {
+                    return new MeteredConnectionFactory(connectionFactory, meterRegistry.getObject(), beanName);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Runners complete before the readiness state flips to ACCEPTING_TRAFFIC, so the first requests find open connections
+    @Bean
+    public ApplicationRunner connectionPoolWarmup(ConnectionFactory connectionFactory, ConnectionPoolProperties properties) {
+        return args -> {
+            ConnectionPool pool = findPool(connectionFactory);
+            if (!properties.isWarmup() || pool == null) {
+                return;
+            }
+            try {
+                Integer warmed = pool.warmup().block(properties.getWarmupTimeout());
+                log.info("Warmed up {} database connections", warmed);
+            } catch (RuntimeException e) {
+                log.warn("Connection pool warm-up failed, connections will be opened on demand: {}", e.getMessage());
+            }
+        };
+    }
+
+    public static MeteredConnectionFactory findMetered(Object connectionFactory) {
+        if (connectionFactory instanceof MeteredConnectionFactory metered) {
+            return metered;
+        }
+        if (connectionFactory instanceof Wrapped<?> wrapped) {
+            return findMetered(wrapped.unwrap());
+        }
+        return null;
+    }
+
+    public static ConnectionPool findPool(Object connectionFactory) {
+        if (connectionFactory instanceof ConnectionPool pool) {
+            return pool;
+        }
+        if (connectionFactory instanceof Wrapped<?> wrapped) {
+            return findPool(wrapped.unwrap());
+        }
+        return null;
+    }
+}
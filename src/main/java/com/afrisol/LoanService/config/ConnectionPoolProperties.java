@@ -0,0 +1,13 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.pool")
+public class ConnectionPoolProperties {
+    private boolean warmup = true;
+    private Duration warmupTimeout = Duration.ofSeconds(30);
+}
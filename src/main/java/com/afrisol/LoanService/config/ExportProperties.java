@@ -0,0 +1,10 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "loan.export")
+public class ExportProperties {
+    private int fetchSize = 500;
+}
@@ -0,0 +1,62 @@
+package com.afrisol.LoanService.config;
+
+import com.afrisol.LoanService.external.Customer;
+import com.afrisol.LoanService.external.Product;
+import com.afrisol.LoanService.external.ReferenceDataClient;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.function.Function;
+
+@Configuration
+public class ExternalClientConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ReferenceDataClient<Customer> customerClient(WebClient.Builder webClientBuilder, ExternalServiceProperties properties,
+                                                        CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        return referenceDataClient("customers", webClientBuilder, properties.getCustomer(), Customer.class,
+                Customer::getCustomerId, circuitBreakerRegistry, meterRegistry);
+    }
+
+    @Bean
+    public ReferenceDataClient<Product> productClient(WebClient.Builder webClientBuilder, ExternalServiceProperties properties,
+                                                      CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        return referenceDataClient("products", webClientBuilder, properties.getProduct(), Product.class,
+                Product::getProductId, circuitBreakerRegistry, meterRegistry);
+    }
+
+    private static <T> ReferenceDataClient<T> referenceDataClient(String name, WebClient.Builder webClientBuilder,
+                                                                  ExternalServiceProperties.Client properties, Class<T> type,
+                                                                  Function<T, String> idOf, CircuitBreakerRegistry circuitBreakerRegistry,
+                                                                  MeterRegistry meterRegistry) {
+        AsyncCache<String, T> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .build());
+        WebClient webClient = webClientBuilder.clone().baseUrl(properties.getBaseUrl()).build();
+        return new ReferenceDataClient<>(webClient, properties, type, idOf, cache, circuitBreaker);
+    }
+}
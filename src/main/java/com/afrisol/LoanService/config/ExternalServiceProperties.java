@@ -0,0 +1,27 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.external")
+public class ExternalServiceProperties {
+    private Client customer = new Client();
+    private Client product = new Client();
+
+    @Data
+    public static class Client {
+        private String baseUrl;
+        private String batchPath;
+        private Duration timeout = Duration.ofSeconds(2);
+        private int batchSize = 100;
+        private int batchConcurrency = 4;
+        private long cacheMaximumSize = 10000;
+        private Duration cacheTtl = Duration.ofMinutes(10);
+        private float failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+    }
+}
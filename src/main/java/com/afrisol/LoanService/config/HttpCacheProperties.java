@@ -0,0 +1,15 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.http-cache")
+public class HttpCacheProperties {
+    // Zero sends no-cache: clients may keep the response but revalidate it with If-None-Match on every use
+    private Duration loanMaxAge = Duration.ZERO;
+    private Duration listMaxAge = Duration.ZERO;
+    private boolean privateCache = true;
+}
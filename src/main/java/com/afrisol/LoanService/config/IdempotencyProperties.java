@@ -0,0 +1,17 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    private long cacheMaximumSize = 10000;
+    // How long a claim may stay unfinished before a retry may take it over
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    private int maxKeyLength = 255;
+    private String purgeCron = "0 45 2 * * *";
+}
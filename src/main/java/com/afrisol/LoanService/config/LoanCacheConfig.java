@@ -0,0 +1,29 @@
+package com.afrisol.LoanService.config;
+
+import com.afrisol.LoanService.cache.CaffeineLoanCache;
+import com.afrisol.LoanService.cache.LoanCache;
+import com.afrisol.LoanService.dto.LoanView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoanCacheConfig {
+
+    // Replaced by any other LoanCache bean, e.g. a shared cache for multi-node deployments
+    @Bean
+    @ConditionalOnMissingBean(LoanCache.class)
+    public LoanCache loanCache(LoanCacheProperties properties, MeterRegistry meterRegistry) {
+        AsyncCache<Integer, LoanView> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "loans");
+        return new CaffeineLoanCache(cache);
+    }
+}
@@ -0,0 +1,13 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.cache")
+public class LoanCacheProperties {
+    private long maximumSize = 10000;
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
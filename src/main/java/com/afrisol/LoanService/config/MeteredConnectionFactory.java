@@ -0,0 +1,81 @@
+package com.afrisol.LoanService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MeteredConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final Timer acquireSuccess;
+    private final Timer acquireFailure;
+    // Smoothed wait of recent acquires and when the last one happened, read by the load shedder
+    private final AtomicLong recentAcquireNanos = new AtomicLong();
+    private volatile long lastAcquireNanos;
+
+    public MeteredConnectionFactory(ConnectionFactory delegate, MeterRegistry meterRegistry, String name) {
+        this.delegate = delegate;
+        this.acquireSuccess = acquireTimer(meterRegistry, name, "success");
+        this.acquireFailure = acquireTimer(meterRegistry, name, "error");
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.<Connection>from(delegate.create())
+                    .doOnSuccess(connection -> acquired(System.nanoTime() - start))
+                    .doOnError(e -> acquireFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    // Zero once no connection has been acquired for a while, so a quiet pool never looks slow
+    public Duration recentAcquireTime(Duration staleAfter) {
+        if (System.nanoTime() - lastAcquireNanos > staleAfter.toNanos()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(recentAcquireNanos.get());
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    // Replaces the pool bean, whose definition names dispose as its destroy method
+    public void dispose() {
+        ConnectionPool pool = ConnectionPoolConfig.findPool(delegate);
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    private void acquired(long elapsedNanos) {
+        acquireSuccess.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        recentAcquireNanos.accumulateAndGet(elapsedNanos, (average, sample) -> average + (sample - average) / 8);
+        lastAcquireNanos = System.nanoTime();
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String name, String outcome) {
+        return Timer.builder("r2dbc.pool.acquire")
+                .description("Time spent waiting for a database connection")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,8 @@
+package com.afrisol.LoanService.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+// Post-processors are only sorted when the @Bean method's declared type implements Ordered; @Order is not enough
+public interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+}
@@ -0,0 +1,17 @@
+package com.afrisol.LoanService.config;
+
+import com.afrisol.LoanService.outbox.InProcessLoanEventPublisher;
+import com.afrisol.LoanService.outbox.LoanEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(LoanEventPublisher.class)
+    public LoanEventPublisher loanEventPublisher() {
+        return new InProcessLoanEventPublisher();
+    }
+}
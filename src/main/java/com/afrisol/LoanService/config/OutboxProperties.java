@@ -0,0 +1,19 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.outbox")
+public class OutboxProperties {
+    private boolean relayEnabled = true;
+    private int relayBatchSize = 500;
+    private Duration relayInterval = Duration.ofMillis(200);
+    private int feedLimit = 500;
+    private Duration feedMaxWait = Duration.ofSeconds(30);
+    private Duration feedRecheckInterval = Duration.ofSeconds(1);
+    private Duration retention = Duration.ofDays(7);
+    private String purgeCron = "0 15 2 * * *";
+}
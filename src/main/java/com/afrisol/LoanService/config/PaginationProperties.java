@@ -0,0 +1,11 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "loan.pagination")
+public class PaginationProperties {
+    private int defaultSize = 50;
+    private int maxSize = 500;
+}
@@ -0,0 +1,45 @@
+package com.afrisol.LoanService.config;
+
+import com.afrisol.LoanService.web.EndpointClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "loan.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private String apiKeyHeader = "X-API-Key";
+    private Bucket defaultBucket = new Bucket();
+    // Overrides keyed by API key, e.g. a larger bucket for a known batch partner
+    private Map<String, Bucket> clients = new HashMap<>();
+    private long maxTrackedClients = 100000;
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+    private Map<EndpointClass, Integer> maxConcurrency = new EnumMap<>(Map.of(
+            EndpointClass.LIST, 16,
+            EndpointClass.READ, 512,
+            EndpointClass.WRITE, 128));
+    private Shedding shedding = new Shedding();
+
+    @Data
+    public static class Bucket {
+        private int capacity = 200;
+        private double refillPerSecond = 100;
+    }
+
+    @Data
+    public static class Shedding {
+        private boolean enabled = true;
+        private int maxPendingAcquires = 50;
+        private Duration maxAcquireTime = Duration.ofMillis(250);
+        private Duration acquireTimeStaleAfter = Duration.ofSeconds(1);
+        private Set<EndpointClass> classes = EnumSet.of(EndpointClass.LIST);
+        private Duration retryAfter = Duration.ofSeconds(2);
+    }
+}
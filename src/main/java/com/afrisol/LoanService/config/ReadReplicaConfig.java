@@ -0,0 +1,88 @@
+package com.afrisol.LoanService.config;
+
+import com.afrisol.LoanService.routing.ReadRoutingConnectionFactory;
+import com.afrisol.LoanService.routing.ReplicaConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "loan.replica", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    // Wraps the auto-configured (and already metered) primary instead of replacing it, so the primary keeps all of
+    // the spring.r2dbc pool settings; runs after connectionFactoryMetricsPostProcessor
+    @Bean
+    public static OrderedBeanPostProcessor readRoutingPostProcessor(ObjectProvider<ReplicaProperties> replicaProperties,
+                                                             ObjectProvider<R2dbcProperties> r2dbcProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ConnectionFactory primary) || bean instanceof ReadRoutingConnectionFactory) {
+                    return bean;
+                }
+                ReplicaProperties properties = replicaProperties.getObject();
+                if (properties.getUrls().isEmpty()) {
+                    log.warn("loan.replica.enabled is set but no replica URLs are configured, all reads use the primary");
+                    return bean;
+                }
+                ReplicaConnectionFactory replicas = replicas(properties, r2dbcProperties.getObject(),
+                        meterRegistry.getObject(), primary);
+                replicas.startHealthChecks(properties.getHealthCheckInterval(), properties.getHealthCheckTimeout());
+                log.info("Routing replica reads across {} replicas", replicas.getReplicas().size());
+                return new ReadRoutingConnectionFactory(primary, replicas);
+            }
+        };
+    }
+
+    private static ReplicaConnectionFactory replicas(ReplicaProperties properties, R2dbcProperties r2dbcProperties,
+                                                     MeterRegistry meterRegistry, ConnectionFactory primary) {
+        String username = properties.getUsername() != null ? properties.getUsername() : r2dbcProperties.getUsername();
+        String password = properties.getPassword() != null ? properties.getPassword() : r2dbcProperties.getPassword();
+        List<ReplicaConnectionFactory.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            String name = "replica-" + i;
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrls().get(i)).mutate();
+            if (username != null) {
+                options.option(ConnectionFactoryOptions.USER, username);
+            }
+            if (password != null) {
+                options.option(ConnectionFactoryOptions.PASSWORD, password);
+            }
+            ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                    .builder(ConnectionFactories.get(options.build()))
+                    .name(name)
+                    .initialSize(properties.getInitialSize())
+                    .maxSize(properties.getMaxSize())
+                    .maxAcquireTime(properties.getMaxAcquireTime())
+                    .validationQuery("SELECT 1")
+                    .build());
+            // Same acquire timer and pool gauges as the primary, tagged with the replica's name
+            new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(meterRegistry);
+            replicas.add(new ReplicaConnectionFactory.Replica(name, new MeteredConnectionFactory(pool, meterRegistry, name)));
+        }
+        return new ReplicaConnectionFactory(replicas, primary, properties.getMaxLag(), meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "loan.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private List<String> urls = new ArrayList<>();
+    private String username;
+    private String password;
+    private int initialSize = 2;
+    private int maxSize = 10;
+    private Duration maxAcquireTime = Duration.ofSeconds(2);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    // Replicas further behind the primary than this stop receiving reads until they catch up
+    private Duration maxLag = Duration.ofSeconds(10);
+}
@@ -0,0 +1,32 @@
+package com.afrisol.LoanService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@Slf4j
+public class SchedulerConfig {
+
+    public static final String BLOCKING_SCHEDULER = "blockingScheduler";
+
+    // Known-blocking or long-running work (e.g. validating a bulk request) is moved here so it never runs on the Netty
+    // event loop
+    @Bean(name = BLOCKING_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler blockingScheduler(SchedulerProperties properties) {
+        log.info("Blocking work runs on the {} scheduler", properties.getMode());
+        return createScheduler(properties);
+    }
+
+    static Scheduler createScheduler(SchedulerProperties properties) {
+        if (properties.getMode() == SchedulerProperties.Mode.VIRTUAL) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "loan-blocking-vt");
+        }
+        return Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueuedTaskCap(),
+                "loan-blocking", (int) properties.getTtl().toSeconds(), true);
+    }
+}
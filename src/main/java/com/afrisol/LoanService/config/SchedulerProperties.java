@@ -0,0 +1,20 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loan.scheduler")
+public class SchedulerProperties {
+    private Mode mode = Mode.BOUNDED;
+    private int threadCap = 10 * Runtime.getRuntime().availableProcessors();
+    private int queuedTaskCap = 100000;
+    private Duration ttl = Duration.ofSeconds(60);
+
+    public enum Mode {
+        BOUNDED,
+        VIRTUAL
+    }
+}
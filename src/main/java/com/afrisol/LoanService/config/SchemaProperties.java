@@ -0,0 +1,17 @@
+package com.afrisol.LoanService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "loan.schema")
+public class SchemaProperties {
+    private boolean verify = true;
+    private String migrationLocation = "classpath:db/migration";
+    private List<String> requiredIndexes = new ArrayList<>();
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,99 @@
+package com.afrisol.LoanService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Fails startup when the database is behind the migrations shipped in this build or is missing an index
+// the query paths rely on, e.g. where migrations run from a pipeline with spring.flyway.enabled=false. It runs
+// while the context refreshes, after Flyway and before the web server starts, so a mismatch never serves a request
+@Component
+@DependsOnDatabaseInitialization
+@Slf4j
+public class SchemaVersionVerifier implements InitializingBean {
+
+    private static final Pattern MIGRATION_VERSION = Pattern.compile("^V([0-9][0-9._]*)__.*\\.sql$");
+
+    private final DatabaseClient databaseClient;
+    private final SchemaProperties properties;
+
+    public SchemaVersionVerifier(DatabaseClient databaseClient, SchemaProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!properties.isVerify()) {
+            return;
+        }
+        MigrationVersion expected = latestShippedVersion(properties.getMigrationLocation());
+        List<String> applied = databaseClient
+                .sql("SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL")
+                .map(row -> row.get("version", String.class))
+                .all()
+                .collectList()
+                .onErrorReturn(List.of())
+                .block(properties.getTimeout());
+        Set<String> indexes = databaseClient
+                .sql("SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()")
+                .map(row -> row.get("indexname", String.class))
+                .all()
+                .collect(Collectors.toSet())
+                .block(properties.getTimeout());
+
+        List<String> problems = verify(expected, applied, indexes, properties.getRequiredIndexes());
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Database schema does not match this build: " + String.join("; ", problems));
+        }
+        log.info("Database schema verified at version {}", expected);
+    }
+
+    static List<String> verify(MigrationVersion expected, Collection<String> appliedVersions,
+                               Set<String> indexes, List<String> requiredIndexes) {
+        List<String> problems = new ArrayList<>();
+        MigrationVersion current = appliedVersions == null ? null : appliedVersions.stream()
+                .filter(Objects::nonNull)
+                .map(MigrationVersion::fromVersion)
+                .max(MigrationVersion::compareTo)
+                .orElse(null);
+        if (expected != null && (current == null || current.compareTo(expected) < 0)) {
+            problems.add("schema version is " + (current == null ? "unknown" : current) + " but " + expected + " is required");
+        }
+        List<String> missing = requiredIndexes.stream()
+                .filter(index -> indexes == null || !indexes.contains(index))
+                .toList();
+        if (!missing.isEmpty()) {
+            problems.add("missing indexes " + missing);
+        }
+        return problems;
+    }
+
+    static MigrationVersion latestShippedVersion(String location) throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+        return Arrays.stream(migrations)
+                .map(Resource::getFilename)
+                .filter(Objects::nonNull)
+                .map(MIGRATION_VERSION::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> MigrationVersion.fromVersion(matcher.group(1)))
+                .max(MigrationVersion::compareTo)
+                .orElse(null);
+    }
+}
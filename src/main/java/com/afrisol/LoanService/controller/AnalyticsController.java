@@ -0,0 +1,46 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.analytics.LoanAnalyticsEngine;
+import com.afrisol.LoanService.dto.PortfolioAnalyticsDTO;
+import com.afrisol.LoanService.dto.PortfolioTotalsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Served from the in-memory analytics engine; none of these endpoints touch the database
+@RestController
+@RequestMapping("api/v1/analytics")
+@Slf4j
+public class AnalyticsController {
+    private final LoanAnalyticsEngine analyticsEngine;
+
+    public AnalyticsController(LoanAnalyticsEngine analyticsEngine) {
+        this.analyticsEngine = analyticsEngine;
+    }
+
+    @GetMapping("/portfolio")
+    public Mono<PortfolioAnalyticsDTO> getPortfolio() {
+        return Mono.fromSupplier(analyticsEngine::getPortfolio);
+    }
+
+    @GetMapping("/products")
+    public Mono<Map<String, PortfolioTotalsDTO>> getProductTotals() {
+        return Mono.fromSupplier(analyticsEngine::getProductTotals);
+    }
+
+    @GetMapping("/products/{productId}")
+    public Mono<ResponseEntity<PortfolioTotalsDTO>> getProductTotals(@PathVariable String productId) {
+        return Mono.fromSupplier(() -> ResponseEntity.of(analyticsEngine.getProductTotals(productId)));
+    }
+
+    @GetMapping("/customers/{customerId}")
+    public Mono<ResponseEntity<PortfolioTotalsDTO>> getCustomerTotals(@PathVariable String customerId) {
+        return Mono.fromSupplier(() -> ResponseEntity.of(analyticsEngine.getCustomerTotals(customerId)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.service.LoanService;
+import com.afrisol.LoanService.util.RequestIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("api/v1/customers/{customerId}/loans")
+@Slf4j
+public class CustomerLoanController {
+    private final LoanService loanService;
+
+    public CustomerLoanController(LoanService loanService) {
+        this.loanService = loanService;
+    }
+
+    @GetMapping
+    public Flux<LoanResponseDTO> getCustomerLoans(
+            @PathVariable String customerId,
+            @RequestParam(required = false) Status status) {
+        String requestID = RequestIds.current();
+        log.debug("Retrieving loans for customer ID: {} and request ID: {}", customerId, requestID);
+        return loanService.getCustomerLoans(customerId, status, requestID);
+    }
+
+    @GetMapping("/summary")
+    public Mono<CustomerLoanSummaryDTO> getCustomerLoanSummary(@PathVariable String customerId) {
+        String requestID = RequestIds.current();
+        log.debug("Summarising loans for customer ID: {} and request ID: {}", customerId, requestID);
+        return loanService.getCustomerLoanSummary(customerId, requestID);
+    }
+}
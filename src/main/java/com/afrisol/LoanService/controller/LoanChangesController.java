@@ -0,0 +1,54 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanChangesDTO;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import com.afrisol.LoanService.util.RequestIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("api/v1/loans/changes")
+@Slf4j
+public class LoanChangesController {
+    private final LoanChangeFeed loanChangeFeed;
+
+    public LoanChangesController(LoanChangeFeed loanChangeFeed) {
+        this.loanChangeFeed = loanChangeFeed;
+    }
+
+    @GetMapping
+    public Mono<LoanChangesDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") long wait) {
+        String requestID = RequestIds.current();
+        log.debug("Reading loan changes after offset {} for request ID: {}", since, requestID);
+        return loanChangeFeed.poll(since, limit, Duration.ofSeconds(wait));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LoanChangeEventDTO>> streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        // A reconnecting EventSource resumes from the last offset it saw
+        long offset = lastEventId != null ? lastEventId : since != null ? since : 0L;
+        String requestID = RequestIds.current();
+        log.debug("Streaming loan changes after offset {} for request ID: {}", offset, requestID);
+        return loanChangeFeed.stream(offset)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(String.valueOf(event.getOffset()))
+                        .event(event.getType().name())
+                        .build());
+    }
+}
@@ -1,67 +1,217 @@
 package com.afrisol.LoanService.controller;
 
+import com.afrisol.LoanService.config.HttpCacheProperties;
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanPageDTO;
 import com.afrisol.LoanService.dto.LoanRequestDTO;
 import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.dto.StatusTransitionProgressDTO;
+import com.afrisol.LoanService.dto.StatusTransitionRequestDTO;
 import com.afrisol.LoanService.exception.LoanNotFoundException;
+import com.afrisol.LoanService.service.IdempotencyService;
+import com.afrisol.LoanService.service.LoanEnricher;
+import com.afrisol.LoanService.service.LoanExpansion;
 import com.afrisol.LoanService.service.LoanService;
+import com.afrisol.LoanService.util.RequestIds;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("api/v1/loans")
 @Slf4j
 public class LoanController {
     private final LoanService loanService;
+    private final LoanEnricher loanEnricher;
+    private final IdempotencyService idempotencyService;
+    private final HttpCacheProperties httpCacheProperties;
 
-    public LoanController(LoanService loanService) {
+    public LoanController(LoanService loanService, LoanEnricher loanEnricher, IdempotencyService idempotencyService,
+                          HttpCacheProperties httpCacheProperties) {
         this.loanService = loanService;
+        this.loanEnricher = loanEnricher;
+        this.idempotencyService = idempotencyService;
+        this.httpCacheProperties = httpCacheProperties;
     }
 
     @GetMapping
-    public Flux<LoanResponseDTO> getAllLoans() {
-        String requestID = UUID.randomUUID().toString();
-        log.info("Retrieving all loans: {}", requestID);
-        return loanService.getAllLoans(requestID);
+    public Mono<ResponseEntity<LoanPageDTO<?>>> getLoans(
+            @ModelAttribute LoanFilterDTO filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String expand,
+            ServerWebExchange exchange) {
+        Set<LoanExpansion> expansions = LoanExpansion.parse(expand);
+        String requestID = RequestIds.current();
+        log.debug("Retrieving loan page: {}", requestID);
+        // Deferred so a revalidation answered with 304 never starts the page query
+        Mono<LoanPageDTO<LoanView>> page = Mono.defer(() -> loanService.getLoans(filter, cursor, size, requestID));
+        if (!expansions.isEmpty()) {
+            // Expanded pages embed customer and product data that the loan change version does not cover; only
+            // they pay for converting the rows to response DTOs
+            return page.flatMap(result -> loanEnricher
+                            .enrich(result.getLoans().stream().map(LoanView::toResponse).toList(), expansions)
+                            .map(loans -> LoanPageDTO.<LoanResponseDTO>builder().loans(loans).nextCursor(result.getNextCursor()).build()))
+                    .map(result -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).<LoanPageDTO<?>>body(result));
+        }
+        CacheControl cacheControl = cacheControl(httpCacheProperties.getListMaxAge());
+        Mono<ResponseEntity<LoanPageDTO<?>>> fullResponse = page.map(result -> ResponseEntity.ok()
+                .eTag(LoanETags.ofCollection(result.getChangeVersion()))
+                .cacheControl(cacheControl)
+                .<LoanPageDTO<?>>body(result));
+        if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            return fullResponse;
+        }
+        // A revalidation that matches costs one indexed query instead of the page read
+        return loanService.getLoansChangeVersion(requestID)
+                .map(LoanETags::ofCollection)
+                .filter(exchange::checkNotModified)
+                .map(eTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).<LoanPageDTO<?>>build())
+                .switchIfEmpty(Mono.defer(() -> fullResponse));
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<?> exportLoans(
+            @ModelAttribute LoanFilterDTO filter,
+            @RequestParam(required = false) String expand,
+            ServerWebExchange exchange) {
+        Set<LoanExpansion> expansions = LoanExpansion.parse(expand);
+        String requestID = RequestIds.current();
+        log.debug("Exporting loans: {}", requestID);
+        exchange.getResponse().getHeaders().setCacheControl(CacheControl.noStore());
+        Flux<LoanView> loans = loanService.exportLoans(filter, requestID);
+        // Plain exports are written straight from the row views; only expansions need the full DTO
+        return expansions.isEmpty() ? loans : loanEnricher.enrich(loans.map(LoanView::toResponse), expansions);
     }
 
     @GetMapping("/{loanId}")
-    public Mono<ResponseEntity<LoanResponseDTO>> getLoan(@PathVariable Integer loanId) {
-        String requestID = UUID.randomUUID().toString();
-        log.info("Retrieving loan with ID: {} and request ID: {}", loanId, requestID);
-        return loanService.getLoan(loanId, requestID)
-                .map(ResponseEntity::ok);
+    public Mono<ResponseEntity<Object>> getLoan(
+            @PathVariable Integer loanId,
+            @RequestParam(required = false) String expand,
+            ServerWebExchange exchange) {
+        Set<LoanExpansion> expansions = LoanExpansion.parse(expand);
+        String requestID = RequestIds.current();
+        log.debug("Retrieving loan with ID: {} and request ID: {}", loanId, requestID);
+        CacheControl cacheControl = cacheControl(httpCacheProperties.getLoanMaxAge());
+        // The version comes from the loan cache when warm, so a matching If-None-Match is answered with a 304
+        // without a query, without enrichment and without serializing a body
+        return loanService.getLoan(loanId, requestID).flatMap(view -> {
+            // Expanded bodies also embed customer and product data, which the loan version does not cover
+            String eTag = expansions.isEmpty() ? LoanETags.of(view.version()) : LoanETags.weak(view.version());
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).<Object>build());
+            }
+            Mono<Object> body = expansions.isEmpty()
+                    ? Mono.just(view)
+                    : loanEnricher.enrich(view.toResponse(), expansions).map(Object.class::cast);
+            return body.map(result -> ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(result));
+        });
     }
 
     @PostMapping
-    public Mono<ResponseEntity<LoanResponseDTO>> addLoan(@RequestBody @Valid LoanRequestDTO loanRequestDTO) {
-        String requestID = UUID.randomUUID().toString();
-        log.info("Adding loan for request ID: {}", requestID);
-        return loanService.addLoan(loanRequestDTO, requestID)
+    public Mono<ResponseEntity<LoanResponseDTO>> addLoan(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid LoanRequestDTO loanRequestDTO) {
+        String requestID = RequestIds.current();
+        log.debug("Adding loan for request ID: {}", requestID);
+        return idempotent(idempotencyKey, "POST /loans", loanRequestDTO,
+                () -> loanService.addLoan(loanRequestDTO, requestID))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<BulkLoanResultDTO>> addLoans(@RequestBody Flux<LoanRequestDTO> loanRequests) {
+        String requestID = RequestIds.current();
+        log.debug("Adding loans in bulk for request ID: {}", requestID);
+        return loanService.addLoans(loanRequests, requestID)
                 .map(ResponseEntity::ok);
     }
 
+    @PostMapping(value = "/status-transitions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StatusTransitionProgressDTO> transitionStatus(@RequestBody @Valid StatusTransitionRequestDTO request) {
+        String requestID = RequestIds.current();
+        log.debug("Transitioning loan status for request ID: {}", requestID);
+        return loanService.transitionStatus(request, requestID);
+    }
+
     @PutMapping("/{loanId}")
     public Mono<ResponseEntity<LoanResponseDTO>> updateLoan(
             @PathVariable Integer loanId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid LoanRequestDTO loanRequestDTO) {
-        String requestID = UUID.randomUUID().toString();
-        log.info("Updating loan with ID: {} and request ID: {}", loanId, requestID);
-        return loanService.updateLoan(loanRequestDTO, loanId, requestID)
-                .map(ResponseEntity::ok);
+        String requestID = RequestIds.current();
+        log.debug("Updating loan with ID: {} and request ID: {}", loanId, requestID);
+        return idempotent(idempotencyKey, "PUT /loans/" + loanId + " " + ifMatch, loanRequestDTO,
+                () -> loanService.updateLoan(loanRequestDTO, loanId, LoanETags.parseIfMatch(ifMatch), requestID))
+                .map(LoanController::okWithETag);
+    }
+
+    @PatchMapping("/{loanId}")
+    public Mono<ResponseEntity<LoanResponseDTO>> mergeLoan(
+            @PathVariable Integer loanId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody LoanRequestDTO loanPatchDTO) {
+        String requestID = RequestIds.current();
+        log.debug("Merging loan with ID: {} and request ID: {}", loanId, requestID);
+        return loanService.mergeLoan(loanPatchDTO, loanId, LoanETags.parseIfMatch(ifMatch), requestID)
+                .map(LoanController::okWithETag);
+    }
+
+    @PostMapping("/{loanId}/repayments")
+    public Mono<ResponseEntity<LoanResponseDTO>> postRepayment(
+            @PathVariable Integer loanId,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid RepaymentRequestDTO repaymentRequestDTO) {
+        String requestID = RequestIds.current();
+        log.debug("Posting repayment to loan with ID: {} and request ID: {}", loanId, requestID);
+        return idempotent(idempotencyKey, "POST /loans/" + loanId + "/repayments", repaymentRequestDTO,
+                () -> loanService.postRepayment(loanId, repaymentRequestDTO, requestID))
+                .map(LoanController::okWithETag);
     }
 
     @DeleteMapping("/{loanId}")
     public Mono<ResponseEntity<Object>> deleteLoan(@PathVariable Integer loanId) {
-        String requestID = UUID.randomUUID().toString();
-        log.info("Deleting loan with ID: {} and request ID: {}", loanId, requestID);
+        String requestID = RequestIds.current();
+        log.debug("Deleting loan with ID: {} and request ID: {}", loanId, requestID);
         return loanService.deleteLoan(loanId, requestID)
                 .then(Mono.just(ResponseEntity.noContent().<Object>build()));
     }
-}
\ No newline at end of file
+
+    private Mono<LoanResponseDTO> idempotent(String idempotencyKey, String operation, Object request,
+                                             Supplier<Mono<LoanResponseDTO>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyService.execute(idempotencyKey, operation, request, LoanResponseDTO.class, action);
+    }
+
+    private CacheControl cacheControl(Duration maxAge) {
+        CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+        return httpCacheProperties.isPrivateCache() ? cacheControl.cachePrivate() : cacheControl;
+    }
+
+    private static ResponseEntity<LoanResponseDTO> okWithETag(LoanResponseDTO loan) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (loan.getVersion() != null) {
+            response.eTag(LoanETags.of(loan.getVersion()));
+        }
+        return response.body(loan);
+    }
+}
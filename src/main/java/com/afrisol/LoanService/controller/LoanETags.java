@@ -0,0 +1,59 @@
+package com.afrisol.LoanService.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class LoanETags {
+
+    private LoanETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String weak(Long version) {
+        return "W/" + of(version);
+    }
+
+    static String ofCollection(String changeVersion) {
+        return "\"loans-" + changeVersion + "\"";
+    }
+
+    // Returns the versions named by strong tags; null means no precondition. Weak tags and tags that are not loan
+    // versions can never match under If-Match's strong comparison, so an empty list fails the precondition
+    static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        int i = 0;
+        while (i < ifMatch.length()) {
+            char c = ifMatch.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < ifMatch.length() && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+            }
+            Long version = weak ? null : parseVersion(ifMatch.substring(open + 1, close));
+            if (version != null) {
+                versions.add(version);
+            }
+            i = close + 1;
+        }
+        return versions;
+    }
+
+    private static Long parseVersion(String tag) {
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.afrisol.LoanService.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BulkLoanItemResultDTO {
+    private int index;
+    private Integer loanId;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,18 @@
+package com.afrisol.LoanService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkLoanResultDTO {
+    private int accepted;
+    private int rejected;
+    private List<BulkLoanItemResultDTO> items;
+}
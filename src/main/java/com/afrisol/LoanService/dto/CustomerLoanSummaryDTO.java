@@ -0,0 +1,20 @@
+package com.afrisol.LoanService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerLoanSummaryDTO {
+    private String customerId;
+    private long loanCount;
+    private BigDecimal totalPrincipal;
+    private BigDecimal totalReceived;
+    private long activeCount;
+}
@@ -0,0 +1,25 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.model.LoanEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanChangeEventDTO {
+    private Long offset;
+    private Integer loanId;
+    private LoanEventType type;
+    private Long version;
+    private OffsetDateTime occurredAt;
+    // State after the change; absent for DELETED and ARCHIVED
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LoanResponseDTO loan;
+}
@@ -0,0 +1,17 @@
+package com.afrisol.LoanService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanChangesDTO {
+    private List<LoanChangeEventDTO> changes;
+    private long nextOffset;
+}
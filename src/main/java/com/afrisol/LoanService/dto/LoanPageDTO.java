@@ -0,0 +1,23 @@
+package com.afrisol.LoanService.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+// Plain pages carry LoanView rows; expanded pages carry LoanResponseDTOs with the embedded customer and product
+public class LoanPageDTO<T> {
+    private List<T> loans;
+    private String nextCursor;
+
+    // Loan table change version read before the page, used for the collection ETag
+    @JsonIgnore
+    private String changeVersion;
+}
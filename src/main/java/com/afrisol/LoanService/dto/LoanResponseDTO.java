@@ -3,6 +3,7 @@ package com.afrisol.LoanService.dto;
 import com.afrisol.LoanService.external.Customer;
 import com.afrisol.LoanService.external.Product;
 import com.afrisol.LoanService.model.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,8 +15,9 @@ import java.time.LocalDate;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class LoanResponseDTO {
+    private Integer loanId;
     private LocalDate startDate;
     private LocalDate loanEndDate;
     private BigDecimal totalLoanAmount;
@@ -27,4 +29,11 @@ public class LoanResponseDTO {
     private String productId;
     private String customerId;
     private Status status;
+    private Long version;
+
+    // Only present when requested with ?expand=customer,product
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Customer customer;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Product product;
 }
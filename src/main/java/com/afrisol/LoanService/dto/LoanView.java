@@ -0,0 +1,44 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.util.Hundredths;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+// Read-only loan as served by point reads and exports: built straight from the row, cached as is and written by
+// LoanViewSerializer in the same JSON shape as LoanResponseDTO. Amounts and the rate are in hundredths
+@JsonSerialize(using = LoanViewSerializer.class)
+public record LoanView(
+        int loanId,
+        LocalDate startDate,
+        LocalDate loanEndDate,
+        long totalLoanAmount,
+        int loanInterestRate,
+        long amountReceived,
+        LocalDate targetCompletionDate,
+        LocalDate payOffDate,
+        long dailyRate,
+        String productId,
+        String customerId,
+        Status status,
+        long version) {
+
+    public LoanResponseDTO toResponse() {
+        return LoanResponseDTO.builder()
+                .loanId(loanId)
+                .startDate(startDate)
+                .loanEndDate(loanEndDate)
+                .totalLoanAmount(Hundredths.toDecimal(totalLoanAmount))
+                .loanInterestRate(Hundredths.toDecimal(loanInterestRate))
+                .amountReceived(Hundredths.toDecimal(amountReceived))
+                .targetCompletionDate(targetCompletionDate)
+                .payOffDate(payOffDate)
+                .dailyRate(Hundredths.toDecimal(dailyRate))
+                .productId(productId)
+                .customerId(customerId)
+                .status(status)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.util.Hundredths;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// Writes the fields directly, with pre-encoded names and numbers and dates formatted into one scratch buffer,
+// instead of reflecting over a bean and formatting BigDecimals and LocalDates into intermediate strings
+public class LoanViewSerializer extends StdSerializer<LoanView> {
+
+    private static final SerializableString LOAN_ID = new SerializedString("loanId");
+    private static final SerializableString START_DATE = new SerializedString("startDate");
+    private static final SerializableString LOAN_END_DATE = new SerializedString("loanEndDate");
+    private static final SerializableString TOTAL_LOAN_AMOUNT = new SerializedString("totalLoanAmount");
+    private static final SerializableString LOAN_INTEREST_RATE = new SerializedString("loanInterestRate");
+    private static final SerializableString AMOUNT_RECEIVED = new SerializedString("amountReceived");
+    private static final SerializableString TARGET_COMPLETION_DATE = new SerializedString("targetCompletionDate");
+    private static final SerializableString PAY_OFF_DATE = new SerializedString("payOffDate");
+    private static final SerializableString DAILY_RATE = new SerializedString("dailyRate");
+    private static final SerializableString PRODUCT_ID = new SerializedString("productId");
+    private static final SerializableString CUSTOMER_ID = new SerializedString("customerId");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    public LoanViewSerializer() {
+        super(LoanView.class);
+    }
+
+    @Override
+    public void serialize(LoanView loan, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[24];
+        gen.writeStartObject(loan);
+        gen.writeFieldName(LOAN_ID);
+        gen.writeNumber(loan.loanId());
+        writeDate(gen, START_DATE, loan.startDate(), buffer);
+        writeDate(gen, LOAN_END_DATE, loan.loanEndDate(), buffer);
+        writeHundredths(gen, TOTAL_LOAN_AMOUNT, loan.totalLoanAmount(), buffer);
+        writeHundredths(gen, LOAN_INTEREST_RATE, loan.loanInterestRate(), buffer);
+        writeHundredths(gen, AMOUNT_RECEIVED, loan.amountReceived(), buffer);
+        writeDate(gen, TARGET_COMPLETION_DATE, loan.targetCompletionDate(), buffer);
+        writeDate(gen, PAY_OFF_DATE, loan.payOffDate(), buffer);
+        writeHundredths(gen, DAILY_RATE, loan.dailyRate(), buffer);
+        gen.writeFieldName(PRODUCT_ID);
+        gen.writeString(loan.productId());
+        gen.writeFieldName(CUSTOMER_ID);
+        gen.writeString(loan.customerId());
+        gen.writeFieldName(STATUS);
+        if (loan.status() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(loan.status().name());
+        }
+        gen.writeFieldName(VERSION);
+        gen.writeNumber(loan.version());
+        gen.writeEndObject();
+    }
+
+    private static void writeHundredths(JsonGenerator gen, SerializableString name, long hundredths, char[] buffer)
+            throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(buffer, 0, Hundredths.format(hundredths, buffer, 0));
+    }
+
+    private static void writeDate(JsonGenerator gen, SerializableString name, LocalDate date, char[] buffer)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (date == null) {
+            gen.writeNull();
+        } else if (date.getYear() < 0 || date.getYear() > 9999) {
+            gen.writeString(date.toString());
+        } else {
+            int year = date.getYear();
+            buffer[0] = (char) ('0' + year / 1000);
+            buffer[1] = (char) ('0' + year / 100 % 10);
+            buffer[2] = (char) ('0' + year / 10 % 10);
+            buffer[3] = (char) ('0' + year % 10);
+            buffer[4] = '-';
+            buffer[5] = (char) ('0' + date.getMonthValue() / 10);
+            buffer[6] = (char) ('0' + date.getMonthValue() % 10);
+            buffer[7] = '-';
+            buffer[8] = (char) ('0' + date.getDayOfMonth() / 10);
+            buffer[9] = (char) ('0' + date.getDayOfMonth() % 10);
+            gen.writeString(buffer, 0, 10);
+        }
+    }
+}
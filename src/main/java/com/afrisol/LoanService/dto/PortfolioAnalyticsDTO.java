@@ -0,0 +1,20 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PortfolioAnalyticsDTO {
+    private LocalDate asOf;
+    private PortfolioTotalsDTO total;
+    private Map<Status, PortfolioTotalsDTO> byStatus;
+}
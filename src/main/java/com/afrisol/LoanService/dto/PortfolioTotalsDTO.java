@@ -0,0 +1,22 @@
+package com.afrisol.LoanService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PortfolioTotalsDTO {
+    private long loanCount;
+    private BigDecimal totalPrincipal;
+    private BigDecimal totalReceived;
+    private BigDecimal accruedInterest;
+    private BigDecimal outstandingBalance;
+    private long loansInArrears;
+    private BigDecimal outstandingInArrears;
+}
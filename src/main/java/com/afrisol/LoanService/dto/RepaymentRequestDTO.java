@@ -0,0 +1,35 @@
+package com.afrisol.LoanService.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RepaymentRequestDTO {
+
+    @NotBlank(message = "Payment reference cannot be blank")
+    @Size(max = 64, message = "Payment reference cannot exceed 64 characters")
+    private String paymentReference;
+
+    @NotNull(message = "Amount cannot be null")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
+    // Matches NUMERIC(19, 2); a finer amount would be rounded on insert and then fail the replay comparison
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 2 decimal places")
+    private BigDecimal amount;
+
+    @PastOrPresent(message = "Payment date must be in the past or present")
+    private LocalDate paymentDate;
+}
@@ -0,0 +1,29 @@
+package com.afrisol.LoanService.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One line per chunk, then a final line with complete = true carrying the totals
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StatusTransitionProgressDTO {
+    private int chunk;
+    private int transitioned;
+    private int skipped;
+    private int failed;
+    private long totalTransitioned;
+    private long totalSkipped;
+    private long totalFailed;
+    private Integer lastLoanId;
+    private List<Integer> skippedLoanIds;
+    private String error;
+    private boolean complete;
+}
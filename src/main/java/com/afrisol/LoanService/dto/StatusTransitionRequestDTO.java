@@ -0,0 +1,24 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.model.Status;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Selects loans either by explicit IDs or by filter, never both
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatusTransitionRequestDTO {
+    @NotNull(message = "Target status cannot be null")
+    private Status targetStatus;
+
+    private List<Integer> loanIds;
+
+    private LoanFilterDTO filter;
+}
@@ -1,5 +1,7 @@
 package com.afrisol.LoanService.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,19 +15,45 @@ import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(LoanNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleLoanNotFoundException(LoanNotFoundException e){
         Map<String, Object> response = new HashMap<>();
         response.put("error", e.getMessage());
         response.put("timestamp", LocalDate.now());
+        countError(e, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler({LoanVersionConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleVersionConflictException(RuntimeException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        response.put("timestamp", LocalDateTime.now());
+        countError(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(LoanPreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailedException(LoanPreconditionFailedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        response.put("timestamp", LocalDateTime.now());
+        countError(ex, HttpStatus.PRECONDITION_FAILED);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
         Map<String, Object> response = new HashMap<>();
         response.put("error", ex.getMessage());
         response.put("timestamp", LocalDateTime.now());
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
@@ -35,11 +63,13 @@ public class GlobalExceptionHandler {
         ex.getBindingResult().getFieldErrors().forEach(error ->
                 errors.put(error.getField(), error.getDefaultMessage())
         );
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
     @ExceptionHandler(CustomException.class)
     public ResponseEntity<String> handleCustomException(CustomException ex) {
+        countError(ex, ex.getStatus());
         return ResponseEntity.status(ex.getStatus()).body(ex.getMessage());
     }
 
@@ -47,6 +77,13 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, String>> handleGenericExceptions(Exception ex) {
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    private void countError(Exception ex, HttpStatus status) {
+        meterRegistry.counter("loan.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
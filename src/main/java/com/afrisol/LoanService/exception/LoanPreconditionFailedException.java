@@ -0,0 +1,7 @@
+package com.afrisol.LoanService.exception;
+
+public class LoanPreconditionFailedException extends RuntimeException {
+    public LoanPreconditionFailedException(String message) {
+        super(message);
+    }
+}
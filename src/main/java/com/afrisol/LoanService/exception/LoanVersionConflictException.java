@@ -0,0 +1,7 @@
+package com.afrisol.LoanService.exception;
+
+public class LoanVersionConflictException extends RuntimeException {
+    public LoanVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,18 @@
 package com.afrisol.LoanService.external;
 
-import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
 public class Customer {
-    private  String customerId;
+    private String customerId;
     private String firstName;
     private String lastName;
     private String email;
@@ -1,5 +1,14 @@
 package com.afrisol.LoanService.external;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
 public class Product {
     private String productId;
     private String name;
@@ -0,0 +1,70 @@
+package com.afrisol.LoanService.external;
+
+import com.afrisol.LoanService.config.ExternalServiceProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class ReferenceDataClient<T> {
+
+    private final WebClient webClient;
+    private final ExternalServiceProperties.Client properties;
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final AsyncCache<String, T> cache;
+    private final CircuitBreaker circuitBreaker;
+
+    public ReferenceDataClient(WebClient webClient, ExternalServiceProperties.Client properties, Class<T> type,
+                               Function<T, String> idOf, AsyncCache<String, T> cache, CircuitBreaker circuitBreaker) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.type = type;
+        this.idOf = idOf;
+        this.cache = cache;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    // Cached IDs and IDs already being fetched by another caller are not requested again; the rest go out in batches
+    public Mono<Map<String, T>> getAll(Collection<String> ids) {
+        Set<String> distinctIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Mono.fromFuture(() -> cache.getAll(distinctIds, (missing, executor) -> fetch(missing).toFuture()), true);
+    }
+
+    private Mono<Map<String, T>> fetch(Set<? extends String> ids) {
+        return Flux.<String>fromIterable(ids)
+                .buffer(properties.getBatchSize())
+                .flatMap(this::fetchBatch, properties.getBatchConcurrency())
+                .collectMap(idOf);
+    }
+
+    // Enrichment is optional: a failed, slow or short-circuited batch leaves its IDs unresolved and uncached
+    private Flux<T> fetchBatch(List<String> ids) {
+        return webClient.get()
+                .uri(uri -> uri.path(properties.getBatchPath()).queryParam("ids", String.join(",", ids)).build())
+                .retrieve()
+                .bodyToFlux(type)
+                .timeout(properties.getTimeout())
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(e -> {
+                    log.warn("Lookup of {} {} IDs from {} failed: {}", ids.size(), type.getSimpleName(),
+                            properties.getBaseUrl(), e.toString());
+                    return Flux.empty();
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.afrisol.LoanService.logging;
+
+import com.afrisol.LoanService.util.RequestIds;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+// Registered through META-INF/services; with automatic context propagation Reactor restores the request ID from
+// the subscriber Context into the MDC of whichever thread delivers a signal
+public class MdcRequestIdAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return RequestIds.KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(RequestIds.KEY);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(RequestIds.KEY, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(RequestIds.KEY);
+    }
+}
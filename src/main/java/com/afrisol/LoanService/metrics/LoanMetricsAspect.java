@@ -0,0 +1,65 @@
+package com.afrisol.LoanService.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Aspect
+@Component
+public class LoanMetricsAspect {
+
+    static final String SERVICE_TIMER = "loan.service";
+    static final String REPOSITORY_TIMER = "loan.repository";
+
+    private final MeterRegistry meterRegistry;
+
+    public LoanMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.afrisol.LoanService.service.LoanService+.*(..))")
+    public Object timeServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository) && execution(public * *(..))")
+    public Object timeRepositoryOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    // The returned publisher is lazy, so the timer starts on subscription and stops on the terminal signal
+    private Object time(String timerName, ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Object result = joinPoint.proceed();
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return mono.doOnSuccess(value -> stop(sample, timerName, operation, "success", null))
+                        .doOnError(e -> stop(sample, timerName, operation, "error", e))
+                        .doOnCancel(() -> stop(sample, timerName, operation, "cancelled", null));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return flux.doOnComplete(() -> stop(sample, timerName, operation, "success", null))
+                        .doOnError(e -> stop(sample, timerName, operation, "error", e))
+                        .doOnCancel(() -> stop(sample, timerName, operation, "cancelled", null));
+            });
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String timerName, String operation, String outcome, Throwable error) {
+        sample.stop(Timer.builder(timerName)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+}
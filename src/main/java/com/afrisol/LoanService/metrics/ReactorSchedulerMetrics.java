@@ -0,0 +1,202 @@
+package com.afrisol.LoanService.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToIntFunction;
+
+@Component
+public class ReactorSchedulerMetrics implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String DECORATOR_KEY = "loan-service-metrics";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SchedulerMeters> schedulers = new ConcurrentHashMap<>();
+
+    public ReactorSchedulerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Executors backing schedulers (and bounded-elastic workers) created from now on report queue and task metrics.
+    // Meters are kept per scheduler and summed over its executors, so workers that are evicted and recreated
+    // do not add series
+    @Override
+    public void afterSingletonsInstantiated() {
+        Schedulers.addExecutorServiceDecorator(DECORATOR_KEY, (scheduler, executorService) ->
+                schedulers.computeIfAbsent(scheduler.toString(), name -> new SchedulerMeters(meterRegistry, name))
+                        .monitor(executorService));
+    }
+
+    @Override
+    public void destroy() {
+        Schedulers.removeExecutorServiceDecorator(DECORATOR_KEY);
+    }
+
+    private static final class SchedulerMeters {
+
+        private final Set<ThreadPoolExecutor> executors = ConcurrentHashMap.newKeySet();
+        private final Timer execution;
+
+        private SchedulerMeters(MeterRegistry meterRegistry, String scheduler) {
+            Tags tags = Tags.of("scheduler", scheduler);
+            this.execution = Timer.builder("reactor.executor")
+                    .description("Tasks run by the scheduler's executors")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("reactor.executor.active", this, meters -> meters.sum(ThreadPoolExecutor::getActiveCount))
+                    .description("Threads of the scheduler's executors that are running tasks")
+                    .baseUnit("threads")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("reactor.executor.queued", this, meters -> meters.sum(executor -> executor.getQueue().size()))
+                    .description("Tasks queued on the scheduler's executors")
+                    .baseUnit("tasks")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("reactor.executor.pool.size", this, meters -> meters.sum(ThreadPoolExecutor::getPoolSize))
+                    .description("Threads of the scheduler's executors")
+                    .baseUnit("threads")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        private ScheduledExecutorService monitor(ScheduledExecutorService executorService) {
+            ThreadPoolExecutor pool = executorService instanceof ThreadPoolExecutor threadPool ? threadPool : null;
+            if (pool != null) {
+                executors.add(pool);
+            }
+            return new MeteredExecutorService(executorService, execution, () -> {
+                if (pool != null) {
+                    executors.remove(pool);
+                }
+            });
+        }
+
+        private double sum(ToIntFunction<ThreadPoolExecutor> value) {
+            return executors.stream().mapToInt(value).sum();
+        }
+    }
+
+    // Times every task and drops the executor from its scheduler's gauges once it shuts down
+    private static final class MeteredExecutorService implements ScheduledExecutorService {
+
+        private final ScheduledExecutorService delegate;
+        private final Timer execution;
+        private final Runnable onShutdown;
+
+        private MeteredExecutorService(ScheduledExecutorService delegate, Timer execution, Runnable onShutdown) {
+            this.delegate = delegate;
+            this.execution = execution;
+            this.onShutdown = onShutdown;
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+            onShutdown.run();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> pending = delegate.shutdownNow();
+            onShutdown.run();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(execution.wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return delegate.submit(execution.wrap(task), result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(execution.wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return delegate.invokeAll(tasks);
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return delegate.invokeAll(tasks, timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+            return delegate.invokeAny(tasks);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.invokeAny(tasks, timeout, unit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(execution.wrap(command));
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return delegate.schedule(execution.wrap(command), delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            return delegate.schedule(execution.wrap(callable), delay, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            return delegate.scheduleAtFixedRate(execution.wrap(command), initialDelay, period, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            return delegate.scheduleWithFixedDelay(execution.wrap(command), initialDelay, delay, unit);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.afrisol.LoanService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("loan_idempotency_key")
+public class IdempotencyRecord {
+    @Id
+    private String idempotencyKey;
+
+    private String fingerprint;
+
+    private String responseBody;
+
+    private OffsetDateTime createdAt;
+
+    private OffsetDateTime expiresAt;
+}
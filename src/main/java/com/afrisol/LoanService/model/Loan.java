@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.math.BigDecimal;
@@ -60,4 +61,7 @@ public class Loan {
 
     @NotNull(message = "Status cannot be null")
     private Status status;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,8 @@
+package com.afrisol.LoanService.model;
+
+public enum LoanEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ARCHIVED
+}
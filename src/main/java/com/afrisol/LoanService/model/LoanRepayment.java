@@ -0,0 +1,27 @@
+package com.afrisol.LoanService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("loan_repayment")
+public class LoanRepayment {
+    @Id
+    private String paymentReference;
+
+    private Integer loanId;
+
+    private BigDecimal amount;
+
+    private LocalDate paymentDate;
+}
@@ -0,0 +1,32 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+// Default publisher when no broker is wired in: in-process subscribers see every relayed event,
+// external consumers read the same offsets through the changes feed
+@Slf4j
+public class InProcessLoanEventPublisher implements LoanEventPublisher {
+
+    private final Sinks.Many<LoanChangeEventDTO> sink = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<Void> publish(List<LoanChangeEventDTO> events) {
+        return Mono.fromRunnable(() -> {
+            for (LoanChangeEventDTO event : events) {
+                // The relay publishes one batch at a time, so emissions are serialised; slow subscribers miss events
+                sink.tryEmitNext(event);
+            }
+            log.debug("Published {} loan change events", events.size());
+        });
+    }
+
+    public Flux<LoanChangeEventDTO> events() {
+        return sink.asFlux();
+    }
+}
@@ -0,0 +1,85 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.config.OutboxProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanChangesDTO;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class LoanChangeFeed {
+
+    private final LoanOutbox loanOutbox;
+    private final OutboxRelay outboxRelay;
+    private final OutboxProperties properties;
+
+    public LoanChangeFeed(LoanOutbox loanOutbox, OutboxRelay outboxRelay, OutboxProperties properties) {
+        this.loanOutbox = loanOutbox;
+        this.outboxRelay = outboxRelay;
+        this.properties = properties;
+    }
+
+    // Returns as soon as events after the offset exist, or an empty page with the same offset once the wait runs out
+    public Mono<LoanChangesDTO> poll(long since, Integer limit, Duration wait) {
+        if (since < 0) {
+            return Mono.error(new IllegalArgumentException("Offset cannot be negative"));
+        }
+        if (limit != null && limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be greater than 0"));
+        }
+        int pageSize = limit == null ? properties.getFeedLimit() : Math.min(limit, properties.getFeedLimit());
+        Duration maxWait = wait == null || wait.isNegative() ? Duration.ZERO
+                : wait.compareTo(properties.getFeedMaxWait()) > 0 ? properties.getFeedMaxWait() : wait;
+        Mono<List<LoanChangeEventDTO>> read = Mono.defer(() -> loanOutbox.readAfter(since, pageSize).collectList());
+        Mono<List<LoanChangeEventDTO>> changes = maxWait.isZero()
+                ? read
+                : wakeups(since)
+                        .concatMap(tick -> read, 1)
+                        .filter(events -> !events.isEmpty())
+                        .next()
+                        .timeout(maxWait, Mono.just(List.of()));
+        return changes.map(events -> LoanChangesDTO.builder()
+                .changes(events)
+                .nextOffset(events.isEmpty() ? since : events.get(events.size() - 1).getOffset())
+                .build());
+    }
+
+    // Unbounded tail of the outbox from the offset onwards, read in pages as the relay assigns positions
+    public Flux<LoanChangeEventDTO> stream(long since) {
+        if (since < 0) {
+            return Flux.error(new IllegalArgumentException("Offset cannot be negative"));
+        }
+        AtomicLong cursor = new AtomicLong(since);
+        return wakeups(since)
+                .concatMap(tick -> readFrom(cursor), 1);
+    }
+
+    private Flux<Long> wakeups(long since) {
+        // Positions from this instance's relay give low latency; the recheck covers events relayed by other instances
+        return Flux.concat(Mono.just(since),
+                        Flux.merge(outboxRelay.positions().filter(position -> position > since),
+                                Flux.interval(properties.getFeedRecheckInterval())))
+                .onBackpressureLatest();
+    }
+
+    private Flux<LoanChangeEventDTO> readFrom(AtomicLong cursor) {
+        int pageSize = properties.getFeedLimit();
+        return page(cursor, pageSize)
+                .expand(events -> events.size() < pageSize ? Mono.empty() : page(cursor, pageSize))
+                .flatMapIterable(events -> events);
+    }
+
+    private Mono<List<LoanChangeEventDTO>> page(AtomicLong cursor, int pageSize) {
+        return Mono.defer(() -> loanOutbox.readAfter(cursor.get(), pageSize).collectList())
+                .doOnNext(events -> {
+                    if (!events.isEmpty()) {
+                        cursor.set(events.get(events.size() - 1).getOffset());
+                    }
+                });
+    }
+}
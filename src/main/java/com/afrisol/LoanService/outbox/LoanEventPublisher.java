@@ -0,0 +1,12 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface LoanEventPublisher {
+
+    // Completes once the batch is durably accepted; the relay only commits the claimed positions after that
+    Mono<Void> publish(List<LoanChangeEventDTO> events);
+}
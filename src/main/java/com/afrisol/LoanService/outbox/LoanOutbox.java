@@ -0,0 +1,177 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.service.LoanMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+public class LoanOutbox {
+
+    private static final String INSERT_EVENT = "INSERT INTO loan_outbox (loan_id, event_type, loan_version, payload) "
+            + "VALUES ($1, $2, $3, $4)";
+
+    // The advisory lock admits one relay at a time across instances, so positions are handed out in commit order;
+    // within a batch they follow id, which keeps the events of one loan in the order they were written. The lock can
+    // be granted just after another relay commits, when the statement snapshot still shows that relay's rows as
+    // unclaimed; rechecking position in the UPDATE skips them instead of renumbering and republishing them
+    private static final String CLAIM_BATCH = "WITH relay AS (SELECT pg_try_advisory_xact_lock(hashtext('loan_outbox_relay')) AS locked), "
+            + "batch AS (SELECT id FROM loan_outbox WHERE position IS NULL AND (SELECT locked FROM relay) ORDER BY id LIMIT $1), "
+            + "numbered AS (SELECT id, nextval('loan_outbox_position_seq') AS position FROM (SELECT id FROM batch ORDER BY id) ordered) "
+            + "UPDATE loan_outbox o SET position = n.position, published_at = now() FROM numbered n WHERE o.id = n.id AND o.position IS NULL "
+            + "RETURNING o.position, o.loan_id, o.event_type, o.loan_version, o.payload, o.created_at";
+
+    private static final String READ_AFTER = "SELECT position, loan_id, event_type, loan_version, payload, created_at "
+            + "FROM loan_outbox WHERE position > $1 ORDER BY position LIMIT $2";
+
+    // Every loan write adds an unrelayed row and every relay run raises the top position, so this triple changes
+    // whenever the loan tables do; both parts are read from one snapshot and served by indexes
+    private static final String CHANGE_VERSION = "SELECT COALESCE((SELECT max(position) FROM loan_outbox), 0), "
+            + "(SELECT count(*) FROM loan_outbox WHERE position IS NULL), "
+            + "(SELECT COALESCE(max(id), 0) FROM loan_outbox WHERE position IS NULL)";
+
+    private static final String LAST_POSITION = "SELECT COALESCE(max(position), 0) FROM loan_outbox";
+
+    // The newest relayed row survives purges so max(position) in CHANGE_VERSION never moves backwards
+    private static final String PURGE = "DELETE FROM loan_outbox WHERE published_at < $1 "
+            + "AND position < (SELECT max(position) FROM loan_outbox)";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public LoanOutbox(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    // Must run inside the transaction of the loan write so the event commits or rolls back with it
+    public Mono<Void> record(LoanEventType type, Loan loan) {
+        return recordAll(type, List.of(loan));
+    }
+
+    public Mono<Void> recordAll(LoanEventType type, List<Loan> loans) {
+        if (loans.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_EVENT);
+            for (int i = 0; i < loans.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                Loan loan = loans.get(i);
+                bindEvent(statement, loan.getLoanId(), type, loan.getVersion(), toPayload(LoanMapper.toResponse(loan)));
+            }
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        }).then();
+    }
+
+    public Mono<Void> recordRemoved(LoanEventType type, List<Integer> loanIds) {
+        if (loanIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_EVENT);
+            for (int i = 0; i < loanIds.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindEvent(statement, loanIds.get(i), type, null, null);
+            }
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        }).then();
+    }
+
+    // Assigns positions to the next batch of unpublished events; an empty list means none are waiting or
+    // another instance is relaying
+    public Mono<List<LoanChangeEventDTO>> claimBatch(int limit) {
+        return databaseClient.sql(CLAIM_BATCH)
+                .bind(0, limit)
+                .map(this::toEvent)
+                .all()
+                .sort(Comparator.comparing(LoanChangeEventDTO::getOffset))
+                .collectList();
+    }
+
+    public Flux<LoanChangeEventDTO> readAfter(long offset, int limit) {
+        return databaseClient.sql(READ_AFTER)
+                .bind(0, offset)
+                .bind(1, limit)
+                .map(this::toEvent)
+                .all();
+    }
+
+    public Mono<String> changeVersion() {
+        return databaseClient.sql(CHANGE_VERSION)
+                .map(row -> row.get(0, Long.class) + "-" + row.get(1, Long.class) + "-" + row.get(2, Long.class))
+                .one();
+    }
+
+    public Mono<Long> lastPosition() {
+        return databaseClient.sql(LAST_POSITION)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Long> purgePublishedBefore(OffsetDateTime cutoff) {
+        return databaseClient.sql(PURGE)
+                .bind(0, cutoff)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private void bindEvent(Statement statement, Integer loanId, LoanEventType type, Long version, String payload) {
+        statement.bind(0, loanId).bind(1, type.name());
+        if (version != null) {
+            statement.bind(2, version);
+        } else {
+            statement.bindNull(2, Long.class);
+        }
+        if (payload != null) {
+            statement.bind(3, payload);
+        } else {
+            statement.bindNull(3, String.class);
+        }
+    }
+
+    private LoanChangeEventDTO toEvent(Readable row) {
+        String payload = row.get("payload", String.class);
+        return LoanChangeEventDTO.builder()
+                .offset(row.get("position", Long.class))
+                .loanId(row.get("loan_id", Integer.class))
+                .type(LoanEventType.valueOf(row.get("event_type", String.class)))
+                .version(row.get("loan_version", Long.class))
+                .occurredAt(row.get("created_at", OffsetDateTime.class))
+                .loan(payload == null ? null : fromPayload(payload))
+                .build();
+    }
+
+    private String toPayload(LoanResponseDTO loan) {
+        try {
+            return objectMapper.writeValueAsString(loan);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise loan " + loan.getLoanId(), e);
+        }
+    }
+
+    private LoanResponseDTO fromPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, LoanResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.config.OutboxProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final LoanOutbox loanOutbox;
+    private final LoanEventPublisher publisher;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxProperties properties;
+    // Highest position this instance has relayed; the changes feed uses it to wake waiting readers
+    private final Sinks.Many<Long> positions = Sinks.many().replay().latest();
+
+    private Disposable relay;
+
+    public OutboxRelay(LoanOutbox loanOutbox, LoanEventPublisher publisher,
+                       TransactionalOperator transactionalOperator, OutboxProperties properties) {
+        this.loanOutbox = loanOutbox;
+        this.publisher = publisher;
+        this.transactionalOperator = transactionalOperator;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        // Ticks that arrive while a drain is running are dropped rather than queued
+        relay = Flux.interval(properties.getRelayInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.warn("Loan outbox relay failed: {}", e.getMessage());
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null) {
+            relay.dispose();
+        }
+    }
+
+    // Relays batches until one comes back short
+    public Mono<Long> drain() {
+        return relayBatch()
+                .expand(relayed -> relayed < properties.getRelayBatchSize() ? Mono.empty() : relayBatch())
+                .reduce(0L, Long::sum);
+    }
+
+    public Flux<Long> positions() {
+        return positions.asFlux();
+    }
+
+    @Scheduled(cron = "${loan.outbox.purge-cron:0 15 2 * * *}")
+    public Mono<Long> purge() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.getRetention());
+        return loanOutbox.purgePublishedBefore(cutoff)
+                .doOnNext(purged -> log.info("Purged {} loan outbox events published before {}", purged, cutoff));
+    }
+
+    private Mono<Long> relayBatch() {
+        // Positions are only committed once the publisher has accepted the batch; a failure rolls them back and the
+        // same events are claimed again, so delivery is at-least-once and consumers dedupe on offset
+        return Mono.defer(() -> loanOutbox.claimBatch(properties.getRelayBatchSize())
+                        .flatMap(events -> events.isEmpty()
+                                ? Mono.just(events)
+                                : publisher.publish(events).thenReturn(events))
+                        .as(transactionalOperator::transactional))
+                .doOnNext(this::relayed)
+                .map(events -> (long) events.size());
+    }
+
+    private void relayed(List<LoanChangeEventDTO> events) {
+        if (!events.isEmpty()) {
+            positions.tryEmitNext(events.get(events.size() - 1).getOffset());
+            log.debug("Relayed {} loan outbox events", events.size());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.afrisol.LoanService.repository;
+
+import com.afrisol.LoanService.model.IdempotencyRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+public interface IdempotencyKeyRepository extends ReactiveCrudRepository<IdempotencyRecord, String> {
+
+    // Inserts the claim, or takes over one that expired or whose owner stopped before finishing
+    @Modifying
+    @Query("INSERT INTO loan_idempotency_key (idempotency_key, fingerprint, expires_at) "
+            + "VALUES (:key, :fingerprint, :expiresAt) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, response_body = NULL, "
+            + "created_at = now(), expires_at = EXCLUDED.expires_at "
+            + "WHERE loan_idempotency_key.expires_at < now() "
+            + "OR (loan_idempotency_key.response_body IS NULL AND loan_idempotency_key.created_at < :staleBefore)")
+    Mono<Integer> claim(String key, String fingerprint, OffsetDateTime expiresAt, OffsetDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE loan_idempotency_key SET response_body = :responseBody WHERE idempotency_key = :key")
+    Mono<Integer> complete(String key, String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM loan_idempotency_key WHERE idempotency_key = :key AND response_body IS NULL")
+    Mono<Integer> release(String key);
+
+    @Modifying
+    @Query("DELETE FROM loan_idempotency_key WHERE expires_at < :now")
+    Mono<Integer> deleteExpired(OffsetDateTime now);
+}
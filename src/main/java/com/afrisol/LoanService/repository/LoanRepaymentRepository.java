@@ -0,0 +1,7 @@
+package com.afrisol.LoanService.repository;
+
+import com.afrisol.LoanService.model.LoanRepayment;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface LoanRepaymentRepository extends ReactiveCrudRepository<LoanRepayment, String> {
+}
@@ -1,7 +1,28 @@
 package com.afrisol.LoanService.repository;
 
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
 import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface LoanRepository extends ReactiveCrudRepository<Loan, Integer> {
+public interface LoanRepository extends ReactiveCrudRepository<Loan, Integer>, LoanRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM loan WHERE loan_id = :loanId")
+    Mono<Integer> deleteByLoanId(Integer loanId);
+
+    Flux<Loan> findByCustomerIdOrderByLoanId(String customerId);
+
+    Flux<Loan> findByCustomerIdAndStatusOrderByLoanId(String customerId, Status status);
+
+    @Query("SELECT COUNT(*) AS loan_count, "
+            + "COALESCE(SUM(total_loan_amount), 0) AS total_principal, "
+            + "COALESCE(SUM(amount_received), 0) AS total_received, "
+            + "COUNT(*) FILTER (WHERE status = 'ACTIVE') AS active_count "
+            + "FROM loan WHERE customer_id = :customerId")
+    Mono<CustomerLoanSummaryDTO> summarizeByCustomerId(String customerId);
 }
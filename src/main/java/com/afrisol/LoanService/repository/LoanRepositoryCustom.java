@@ -0,0 +1,37 @@
+package com.afrisol.LoanService.repository;
+
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface LoanRepositoryCustom {
+    Flux<LoanView> findPage(LoanFilterDTO filter, Integer afterLoanId, int limit);
+
+    Flux<Integer> findIdPage(LoanFilterDTO filter, Integer afterLoanId, int limit);
+
+    Flux<Loan> streamLoans(LoanFilterDTO filter, int fetchSize);
+
+    Flux<LoanView> streamLoanViews(LoanFilterDTO filter, int fetchSize);
+
+    Mono<LoanView> findViewById(Integer loanId);
+
+    Flux<Integer> insertAll(List<Loan> loans);
+
+    Mono<Loan> updateReturning(Integer loanId, Loan loan, List<Long> expectedVersions);
+
+    Mono<Loan> applyRepayment(Integer loanId, String paymentReference, BigDecimal amount, LocalDate paymentDate);
+
+    Flux<Loan> transitionStatus(List<Integer> loanIds, Status targetStatus);
+
+    Mono<LoanView> findArchivedViewById(Integer loanId);
+
+    Flux<Integer> archiveClosedLoans(OffsetDateTime closedBefore, int limit);
+}
@@ -0,0 +1,316 @@
+package com.afrisol.LoanService.repository;
+
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.Status;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.PreparedOperation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    private static final SqlIdentifier LOAN_TABLE = SqlIdentifier.unquoted("loan");
+
+    private static final String INSERT_LOAN = "INSERT INTO loan (start_date, loan_end_date, total_loan_amount, "
+            + "loan_interest_rate, amount_received, target_completion_date, pay_off_date, daily_rate, "
+            + "product_id, customer_id, status) VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11)";
+
+    private static final String UPDATE_LOAN = "UPDATE loan SET start_date = $1, loan_end_date = $2, "
+            + "total_loan_amount = $3, loan_interest_rate = $4, amount_received = $5, target_completion_date = $6, "
+            + "pay_off_date = $7, daily_rate = $8, product_id = $9, customer_id = $10, status = $11, "
+            + "version = version + 1 WHERE loan_id = $12 AND ($13::bigint[] IS NULL OR version = ANY($13)) RETURNING *";
+
+    // Records the payment reference and increments the balance in one statement; a known reference matches no row
+    private static final String APPLY_REPAYMENT = "WITH recorded AS ("
+            + "INSERT INTO loan_repayment (payment_reference, loan_id, amount, payment_date) "
+            + "SELECT $1, loan_id, $3, $4 FROM loan WHERE loan_id = $2 "
+            + "ON CONFLICT (payment_reference) DO NOTHING "
+            + "RETURNING loan_id, amount, payment_date) "
+            + "UPDATE loan l SET amount_received = l.amount_received + r.amount, "
+            + "pay_off_date = CASE WHEN l.pay_off_date IS NULL AND l.amount_received + r.amount >= l.total_loan_amount "
+            + "THEN r.payment_date ELSE l.pay_off_date END, "
+            + "version = l.version + 1 "
+            + "FROM recorded r WHERE l.loan_id = r.loan_id RETURNING l.*";
+
+    // Only loans whose current status may move to the target are updated; the rest match no transition row
+    private static final String TRANSITION_STATUS = "UPDATE loan l SET status = t.to_status, version = l.version + 1 "
+            + "FROM loan_status_transition t "
+            + "WHERE l.loan_id = ANY($1) AND t.from_status = l.status AND t.to_status = $2 RETURNING l.*";
+
+    private static final String LOAN_COLUMNS = "loan_id, start_date, loan_end_date, total_loan_amount, "
+            + "loan_interest_rate, amount_received, target_completion_date, pay_off_date, daily_rate, "
+            + "product_id, customer_id, status, version";
+
+    // Scaling the NUMERIC(p, 2) columns to bigint in the query lets the driver decode longs instead of BigDecimals
+    private static final List<String> LOAN_VIEW_COLUMNS = List.of("loan_id", "start_date", "loan_end_date",
+            "(total_loan_amount * 100)::bigint", "(loan_interest_rate * 100)::int", "(amount_received * 100)::bigint",
+            "target_completion_date", "pay_off_date", "(daily_rate * 100)::bigint",
+            "product_id", "customer_id", "status", "version");
+
+    private static final List<Expression> LOAN_VIEW_PROJECTION = LOAN_VIEW_COLUMNS.stream()
+            .map(Expressions::just)
+            .toList();
+
+    private static final String FIND_LOAN_VIEW = "SELECT " + String.join(", ", LOAN_VIEW_COLUMNS)
+            + " FROM loan WHERE loan_id = $1";
+
+    private static final String FIND_ARCHIVED_LOAN_VIEW = "SELECT " + String.join(", ", LOAN_VIEW_COLUMNS)
+            + " FROM loan_archive WHERE loan_id = $1";
+
+    // Moves one batch of loans closed before the cutoff, and their repayments, in a single statement; closed_at is
+    // maintained by a trigger on loan. SKIP LOCKED leaves rows that are being written to for the next run instead
+    // of waiting on them
+    private static final String ARCHIVE_CLOSED_LOANS = "WITH candidates AS ("
+            + "SELECT loan_id FROM loan WHERE closed_at < $1 "
+            + "ORDER BY closed_at LIMIT $2 FOR UPDATE SKIP LOCKED), "
+            + "moved_repayments AS ("
+            + "DELETE FROM loan_repayment r USING candidates c WHERE r.loan_id = c.loan_id RETURNING r.*), "
+            + "archived_repayments AS ("
+            + "INSERT INTO loan_repayment_archive SELECT * FROM moved_repayments ON CONFLICT DO NOTHING), "
+            + "moved AS ("
+            + "DELETE FROM loan l USING candidates c WHERE l.loan_id = c.loan_id RETURNING l.*) "
+            + "INSERT INTO loan_archive (" + LOAN_COLUMNS + ", closed_at) SELECT " + LOAN_COLUMNS + ", closed_at FROM moved "
+            + "RETURNING loan_id";
+
+    private final R2dbcEntityTemplate template;
+
+    public LoanRepositoryCustomImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<LoanView> findPage(LoanFilterDTO filter, Integer afterLoanId, int limit) {
+        Criteria criteria = toCriteria(filter);
+        if (afterLoanId != null) {
+            criteria = criteria.and("loanId").greaterThan(afterLoanId);
+        }
+        StatementMapper statementMapper = template.getDataAccessStrategy().getStatementMapper().forType(Loan.class);
+        StatementMapper.SelectSpec select = statementMapper.createSelect(LOAN_TABLE)
+                .withProjection(LOAN_VIEW_PROJECTION)
+                .withCriteria(criteria)
+                .withSort(Sort.by(Sort.Direction.ASC, "loanId"))
+                .limit(limit);
+        return template.getDatabaseClient()
+                .sql(statementMapper.getMappedObject(select))
+                .map(LoanRepositoryCustomImpl::toView)
+                .all();
+    }
+
+    @Override
+    public Flux<Integer> findIdPage(LoanFilterDTO filter, Integer afterLoanId, int limit) {
+        Criteria criteria = toCriteria(filter);
+        if (afterLoanId != null) {
+            criteria = criteria.and("loanId").greaterThan(afterLoanId);
+        }
+        StatementMapper statementMapper = template.getDataAccessStrategy().getStatementMapper().forType(Loan.class);
+        StatementMapper.SelectSpec select = statementMapper.createSelect(LOAN_TABLE)
+                .withProjection("loan_id")
+                .withCriteria(criteria)
+                .withSort(Sort.by(Sort.Direction.ASC, "loanId"))
+                .limit(limit);
+        return template.getDatabaseClient()
+                .sql(statementMapper.getMappedObject(select))
+                .map(row -> row.get(0, Integer.class))
+                .all();
+    }
+
+    @Override
+    public Flux<Loan> streamLoans(LoanFilterDTO filter, int fetchSize) {
+        StatementMapper statementMapper = template.getDataAccessStrategy().getStatementMapper().forType(Loan.class);
+        StatementMapper.SelectSpec select = statementMapper.createSelect(LOAN_TABLE)
+                .doWithTable((table, spec) -> spec.withProjection(table.asterisk()))
+                .withCriteria(toCriteria(filter))
+                .withSort(Sort.by(Sort.Direction.ASC, "loanId"));
+        PreparedOperation<?> operation = statementMapper.getMappedObject(select);
+        // A fetch size makes the driver pull rows from a portal in chunks as downstream demand arrives
+        return template.getDatabaseClient()
+                .sql(operation)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> template.getConverter().read(Loan.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Flux<LoanView> streamLoanViews(LoanFilterDTO filter, int fetchSize) {
+        StatementMapper statementMapper = template.getDataAccessStrategy().getStatementMapper().forType(Loan.class);
+        StatementMapper.SelectSpec select = statementMapper.createSelect(LOAN_TABLE)
+                .withProjection(LOAN_VIEW_PROJECTION)
+                .withCriteria(toCriteria(filter))
+                .withSort(Sort.by(Sort.Direction.ASC, "loanId"));
+        PreparedOperation<?> operation = statementMapper.getMappedObject(select);
+        return template.getDatabaseClient()
+                .sql(operation)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(LoanRepositoryCustomImpl::toView)
+                .all();
+    }
+
+    @Override
+    public Mono<LoanView> findViewById(Integer loanId) {
+        return template.getDatabaseClient()
+                .sql(FIND_LOAN_VIEW)
+                .bind(0, loanId)
+                .map(LoanRepositoryCustomImpl::toView)
+                .one();
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Loan> loans) {
+        if (loans.isEmpty()) {
+            return Flux.empty();
+        }
+        // All bindings go out on one statement, which the driver pipelines in a single round trip
+        return template.getDatabaseClient().inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_LOAN).returnGeneratedValues("loan_id");
+            for (int i = 0; i < loans.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindLoan(statement, loans.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("loan_id", Integer.class)));
+        });
+    }
+
+    @Override
+    public Mono<Loan> updateReturning(Integer loanId, Loan loan, List<Long> expectedVersions) {
+        return template.getDatabaseClient().inConnection(connection -> {
+            Statement statement = connection.createStatement(UPDATE_LOAN);
+            bindLoan(statement, loan);
+            statement.bind(11, loanId);
+            if (expectedVersions != null) {
+                statement.bind(12, expectedVersions.toArray(Long[]::new));
+            } else {
+                statement.bindNull(12, Long[].class);
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> template.getConverter().read(Loan.class, row, metadata)))
+                    .singleOrEmpty();
+        });
+    }
+
+    @Override
+    public Mono<Loan> applyRepayment(Integer loanId, String paymentReference, BigDecimal amount, LocalDate paymentDate) {
+        return template.getDatabaseClient()
+                .sql(APPLY_REPAYMENT)
+                .bind(0, paymentReference)
+                .bind(1, loanId)
+                .bind(2, amount)
+                .bind(3, paymentDate)
+                .map((row, metadata) -> template.getConverter().read(Loan.class, row, metadata))
+                .one();
+    }
+
+    @Override
+    public Flux<Loan> transitionStatus(List<Integer> loanIds, Status targetStatus) {
+        if (loanIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient()
+                .sql(TRANSITION_STATUS)
+                .bind(0, loanIds.toArray(Integer[]::new))
+                .bind(1, targetStatus.name())
+                .map((row, metadata) -> template.getConverter().read(Loan.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<LoanView> findArchivedViewById(Integer loanId) {
+        return template.getDatabaseClient()
+                .sql(FIND_ARCHIVED_LOAN_VIEW)
+                .bind(0, loanId)
+                .map(LoanRepositoryCustomImpl::toView)
+                .one();
+    }
+
+    @Override
+    public Flux<Integer> archiveClosedLoans(OffsetDateTime closedBefore, int limit) {
+        return template.getDatabaseClient()
+                .sql(ARCHIVE_CLOSED_LOANS)
+                .bind(0, closedBefore)
+                .bind(1, limit)
+                .map(row -> row.get("loan_id", Integer.class))
+                .all();
+    }
+
+    private void bindLoan(Statement statement, Loan loan) {
+        statement.bind(0, loan.getStartDate())
+                .bind(1, loan.getLoanEndDate())
+                .bind(2, loan.getTotalLoanAmount())
+                .bind(3, loan.getLoanInterestRate())
+                .bind(4, loan.getAmountReceived())
+                .bind(5, loan.getTargetCompletionDate());
+        if (loan.getPayOffDate() != null) {
+            statement.bind(6, loan.getPayOffDate());
+        } else {
+            statement.bindNull(6, LocalDate.class);
+        }
+        statement.bind(7, loan.getDailyRate())
+                .bind(8, loan.getProductId())
+                .bind(9, loan.getCustomerId())
+                .bind(10, loan.getStatus().name());
+    }
+
+    // Positional reads in LOAN_VIEW_COLUMNS order skip the name lookups and the entity converter
+    private static LoanView toView(Readable row) {
+        return new LoanView(
+                row.get(0, Integer.class),
+                row.get(1, LocalDate.class),
+                row.get(2, LocalDate.class),
+                row.get(3, Long.class),
+                row.get(4, Integer.class),
+                row.get(5, Long.class),
+                row.get(6, LocalDate.class),
+                row.get(7, LocalDate.class),
+                row.get(8, Long.class),
+                row.get(9, String.class),
+                row.get(10, String.class),
+                Status.valueOf(row.get(11, String.class)),
+                row.get(12, Long.class));
+    }
+
+    private Criteria toCriteria(LoanFilterDTO filter) {
+        Criteria criteria = Criteria.empty();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getStatus() != null) {
+            criteria = criteria.and("status").is(filter.getStatus().name());
+        }
+        if (filter.getCustomerId() != null) {
+            criteria = criteria.and("customerId").is(filter.getCustomerId());
+        }
+        if (filter.getProductId() != null) {
+            criteria = criteria.and("productId").is(filter.getProductId());
+        }
+        if (filter.getStartDateFrom() != null) {
+            criteria = criteria.and("startDate").greaterThanOrEquals(filter.getStartDateFrom());
+        }
+        if (filter.getStartDateTo() != null) {
+            criteria = criteria.and("startDate").lessThanOrEquals(filter.getStartDateTo());
+        }
+        if (filter.getLoanEndDateFrom() != null) {
+            criteria = criteria.and("loanEndDate").greaterThanOrEquals(filter.getLoanEndDateFrom());
+        }
+        if (filter.getLoanEndDateTo() != null) {
+            criteria = criteria.and("loanEndDate").lessThanOrEquals(filter.getLoanEndDateTo());
+        }
+        return criteria;
+    }
+}
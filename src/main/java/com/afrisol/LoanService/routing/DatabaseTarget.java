@@ -0,0 +1,20 @@
+package com.afrisol.LoanService.routing;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+public enum DatabaseTarget {
+    PRIMARY,
+    REPLICA;
+
+    public static final String CONTEXT_KEY = "loan.database-target";
+
+    // An explicit choice made further out, e.g. a read-your-writes request pinned to PRIMARY, is kept
+    public static Context preferReplica(Context context) {
+        return context.hasKey(CONTEXT_KEY) ? context : context.put(CONTEXT_KEY, REPLICA);
+    }
+
+    public static DatabaseTarget of(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, PRIMARY);
+    }
+}
@@ -0,0 +1,45 @@
+package com.afrisol.LoanService.routing;
+
+import com.afrisol.LoanService.config.ConnectionPoolConfig;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Picks the primary or the replicas per subscription from the DatabaseTarget in the Reactor Context;
+// unwraps to the primary so pool warm-up and load shedding keep watching the primary pool
+public class ReadRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory primary;
+    private final ReplicaConnectionFactory replicas;
+
+    public ReadRoutingConnectionFactory(ConnectionFactory primary, ReplicaConnectionFactory replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        setTargetConnectionFactories(Map.of(DatabaseTarget.PRIMARY, primary, DatabaseTarget.REPLICA, replicas));
+        setDefaultTargetConnectionFactory(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.just(DatabaseTarget.of(context)));
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return primary;
+    }
+
+    // Replaces the pool bean, whose definition names dispose as its destroy method
+    public void dispose() {
+        replicas.close();
+        ConnectionPool pool = ConnectionPoolConfig.findPool(primary);
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.afrisol.LoanService.routing;
+
+import com.afrisol.LoanService.config.ConnectionPoolConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Spreads connections round-robin over the healthy replicas and falls back to the primary when none is usable
+@Slf4j
+public class ReplicaConnectionFactory implements ConnectionFactory {
+
+    // Null without a streaming WAL receiver, since a disconnected replica has replayed all it received yet is stale.
+    // Otherwise zero when everything received is replayed, so an idle primary does not read as lag
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END::float8";
+
+    private final List<Replica> replicas;
+    private final ConnectionFactory primary;
+    private final Duration maxLag;
+    private final Counter fallbacks;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Disposable healthChecks;
+
+    public ReplicaConnectionFactory(List<Replica> replicas, ConnectionFactory primary, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.fallbacks = Counter.builder("loan.replica.fallback")
+                .description("Replica reads served by the primary because no replica was usable")
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            Gauge.builder("loan.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("name", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("loan.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("name", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            Replica replica = pick();
+            if (replica == null) {
+                fallbacks.increment();
+                return Mono.from(primary.create());
+            }
+            // A replica that cannot hand out a connection is taken out until the next successful health check
+            return Mono.<Connection>from(replica.connectionFactory.create())
+                    .onErrorResume(e -> {
+                        log.warn("Replica {} failed to open a connection, reading from the primary: {}", replica.name, e.getMessage());
+                        replica.healthy = false;
+                        fallbacks.increment();
+                        return Mono.from(primary.create());
+                    });
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    public void startHealthChecks(Duration interval, Duration timeout) {
+        healthChecks = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(replicas).flatMap(replica -> check(replica, timeout)))
+                .subscribe();
+    }
+
+    public void close() {
+        Disposable checks = healthChecks;
+        if (checks != null) {
+            checks.dispose();
+        }
+        for (Replica replica : replicas) {
+            ConnectionPool pool = ConnectionPoolConfig.findPool(replica.connectionFactory);
+            if (pool != null) {
+                pool.dispose();
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    Mono<Void> check(Replica replica, Duration timeout) {
+        return Mono.usingWhen(Mono.<Connection>from(replica.connectionFactory.create()),
+                        connection -> Mono.from(connection.createStatement(LAG_QUERY).execute())
+                                .flatMap(result -> Mono.from(result.map(row -> Optional.ofNullable(row.get(0, Double.class))))),
+                        Connection::close)
+                .timeout(timeout)
+                .doOnNext(lagSeconds -> lagSeconds.ifPresentOrElse(lag -> replica.update(lag, maxLag), replica::disconnected))
+                .doOnError(e -> {
+                    if (replica.healthy) {
+                        log.warn("Replica {} failed its health check: {}", replica.name, e.getMessage());
+                    }
+                    replica.healthy = false;
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final ConnectionFactory connectionFactory;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        // Replicas start out of rotation and join once a health check has seen them
+        public Replica(String name, ConnectionFactory connectionFactory) {
+            this.name = name;
+            this.connectionFactory = connectionFactory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ConnectionFactory getConnectionFactory() {
+            return connectionFactory;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void update(double lagSeconds, Duration maxLag) {
+            this.lagSeconds = lagSeconds;
+            boolean caughtUp = lagSeconds * 1000 <= maxLag.toMillis();
+            if (caughtUp != healthy) {
+                log.info("Replica {} is now {} (lag {}s)", name, caughtUp ? "in rotation" : "out of rotation", lagSeconds);
+            }
+            this.healthy = caughtUp;
+        }
+
+        void disconnected() {
+            if (healthy) {
+                log.warn("Replica {} is out of rotation: no streaming WAL receiver", name);
+            }
+            this.lagSeconds = Double.NaN;
+            this.healthy = false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.afrisol.LoanService.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Ordered outside the transaction interceptor so a read-only transaction also begins on the replica
+@Aspect
+@Component
+@Order(0)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.afrisol.LoanService.routing.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Mono<?> mono) {
+            return mono.contextWrite(DatabaseTarget::preferReplica);
+        }
+        if (result instanceof Flux<?> flux) {
+            return flux.contextWrite(DatabaseTarget::preferReplica);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.IdempotencyProperties;
+import com.afrisol.LoanService.exception.CustomException;
+import com.afrisol.LoanService.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final AsyncCache<String, StoredResponse> responses;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              IdempotencyProperties properties,
+                              ObjectMapper objectMapper,
+                              TransactionalOperator transactionalOperator,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionalOperator = transactionalOperator;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses.synchronous(), "idempotency");
+    }
+
+    // Runs the action once per key; retries get the stored response, a key reused for a different request gets 422
+    public <T> Mono<T> execute(String key, String operation, Object request, Class<T> responseType, Supplier<Mono<T>> action) {
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            return Mono.error(new IllegalArgumentException(
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + properties.getMaxKeyLength() + " characters"));
+        }
+        String fingerprint = fingerprint(operation, request);
+        // Concurrent duplicates on this instance share one in-flight future, like loan cache misses
+        return Mono.fromFuture(() -> responses.get(key, (k, executor) -> resolve(k, fingerprint, action).toFuture()), true)
+                .flatMap(stored -> {
+                    if (!stored.fingerprint().equals(fingerprint)) {
+                        return Mono.error(new CustomException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                IDEMPOTENCY_KEY_HEADER + " " + key + " was already used for a different request"));
+                    }
+                    return Mono.just(read(stored.body(), responseType));
+                });
+    }
+
+    @Scheduled(cron = "${loan.idempotency.purge-cron:0 45 2 * * *}")
+    public Mono<Integer> purgeExpired() {
+        return repository.deleteExpired(OffsetDateTime.now())
+                .doOnNext(purged -> log.info("Purged {} expired idempotency keys", purged));
+    }
+
+    String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint " + operation, e);
+        }
+    }
+
+    private <T> Mono<StoredResponse> resolve(String key, String fingerprint, Supplier<Mono<T>> action) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return repository.claim(key, fingerprint, now.plus(properties.getTtl()), now.minus(properties.getInFlightTimeout()))
+                .flatMap(claimed -> claimed > 0 ? run(key, fingerprint, action) : stored(key));
+    }
+
+    private <T> Mono<StoredResponse> run(String key, String fingerprint, Supplier<Mono<T>> action) {
+        // The write and its stored response commit together, so a retry can never see the write without the response
+        return Mono.defer(action)
+                .flatMap(response -> {
+                    String body = write(response);
+                    return repository.complete(key, body).thenReturn(new StoredResponse(fingerprint, body));
+                })
+                .as(transactionalOperator::transactional)
+                // Failures are not stored: the claim is dropped so the client can retry with the same key
+                .onErrorResume(e -> repository.release(key)
+                        .onErrorResume(releaseError -> Mono.empty())
+                        .then(Mono.error(e)));
+    }
+
+    private Mono<StoredResponse> stored(String key) {
+        // Another instance, or an earlier attempt, holds the key
+        return repository.findById(key)
+                .filter(record -> record.getResponseBody() != null)
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getResponseBody()))
+                .switchIfEmpty(Mono.error(new CustomException(HttpStatus.CONFLICT,
+                        "A request with " + IDEMPOTENCY_KEY_HEADER + " " + key + " is still in progress")));
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read idempotent response", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, String body) {
+    }
+}
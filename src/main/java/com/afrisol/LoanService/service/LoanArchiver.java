@@ -0,0 +1,54 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.ArchiveProperties;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class LoanArchiver {
+
+    private final LoanRepository loanRepository;
+    private final ArchiveProperties properties;
+    private final LoanOutbox loanOutbox;
+    private final TransactionalOperator transactionalOperator;
+
+    public LoanArchiver(LoanRepository loanRepository, ArchiveProperties properties, LoanOutbox loanOutbox,
+                        TransactionalOperator transactionalOperator) {
+        this.loanRepository = loanRepository;
+        this.properties = properties;
+        this.loanOutbox = loanOutbox;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Scheduled(cron = "${loan.archive.cron:0 30 1 * * *}")
+    public Mono<Long> archiveClosedLoans() {
+        if (!properties.isEnabled()) {
+            return Mono.just(0L);
+        }
+        OffsetDateTime closedBefore = OffsetDateTime.now().minus(properties.getRetention());
+        // Small batches each commit on their own, so no run holds locks on a large slice of the live table
+        return archiveBatch(closedBefore)
+                .expand(archived -> archived.size() < properties.getBatchSize() ? Mono.empty() : archiveBatch(closedBefore))
+                .take(properties.getMaxBatches())
+                .map(List::size)
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> log.info("Archived {} loans closed before {}", total, closedBefore));
+    }
+
+    private Mono<List<Integer>> archiveBatch(OffsetDateTime closedBefore) {
+        return Mono.defer(() -> loanRepository.archiveClosedLoans(closedBefore, properties.getBatchSize())
+                        .collectList()
+                        .flatMap(loanIds -> loanOutbox.recordRemoved(LoanEventType.ARCHIVED, loanIds).thenReturn(loanIds))
+                        .as(transactionalOperator::transactional));
+    }
+}
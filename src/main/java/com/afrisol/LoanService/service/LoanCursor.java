@@ -0,0 +1,32 @@
+package com.afrisol.LoanService.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class LoanCursor {
+
+    private static final String PREFIX = "loan:";
+
+    private LoanCursor() {
+    }
+
+    static String encode(Integer loanId) {
+        byte[] raw = (PREFIX + loanId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static Integer decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Integer.valueOf(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.ExternalServiceProperties;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.external.Customer;
+import com.afrisol.LoanService.external.Product;
+import com.afrisol.LoanService.external.ReferenceDataClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class LoanEnricher {
+
+    private final ReferenceDataClient<Customer> customerClient;
+    private final ReferenceDataClient<Product> productClient;
+    private final int streamBatchSize;
+
+    public LoanEnricher(ReferenceDataClient<Customer> customerClient, ReferenceDataClient<Product> productClient,
+                        ExternalServiceProperties properties) {
+        this.customerClient = customerClient;
+        this.productClient = productClient;
+        this.streamBatchSize = Math.max(properties.getCustomer().getBatchSize(), properties.getProduct().getBatchSize());
+    }
+
+    public Mono<LoanResponseDTO> enrich(LoanResponseDTO loan, Set<LoanExpansion> expansions) {
+        return enrich(List.of(loan), expansions).map(loans -> loans.get(0));
+    }
+
+    // One customer and one product lookup per page, however many loans it holds
+    public Mono<List<LoanResponseDTO>> enrich(List<LoanResponseDTO> loans, Set<LoanExpansion> expansions) {
+        if (loans.isEmpty() || expansions.isEmpty()) {
+            return Mono.just(loans);
+        }
+        Mono<Map<String, Customer>> customers = expansions.contains(LoanExpansion.CUSTOMER)
+                ? customerClient.getAll(loans.stream().map(LoanResponseDTO::getCustomerId).toList())
+                : Mono.just(Map.of());
+        Mono<Map<String, Product>> products = expansions.contains(LoanExpansion.PRODUCT)
+                ? productClient.getAll(loans.stream().map(LoanResponseDTO::getProductId).toList())
+                : Mono.just(Map.of());
+        // Loans may come from the shared loan cache, so expanded copies are returned instead of mutating them
+        return Mono.zip(customers, products, (customerById, productById) -> loans.stream()
+                .map(loan -> loan.toBuilder()
+                        .customer(loan.getCustomerId() == null ? null : customerById.get(loan.getCustomerId()))
+                        .product(loan.getProductId() == null ? null : productById.get(loan.getProductId()))
+                        .build())
+                .toList());
+    }
+
+    public Flux<LoanResponseDTO> enrich(Flux<LoanResponseDTO> loans, Set<LoanExpansion> expansions) {
+        if (expansions.isEmpty()) {
+            return loans;
+        }
+        return loans.buffer(streamBatchSize)
+                .concatMap(batch -> enrich(batch, expansions))
+                .concatMapIterable(batch -> batch);
+    }
+}
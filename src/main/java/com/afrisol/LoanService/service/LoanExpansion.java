@@ -0,0 +1,30 @@
+package com.afrisol.LoanService.service;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+public enum LoanExpansion {
+    CUSTOMER,
+    PRODUCT;
+
+    // Parses ?expand=customer,product; unknown values are rejected so typos don't silently return unexpanded loans
+    public static Set<LoanExpansion> parse(String expand) {
+        Set<LoanExpansion> expansions = EnumSet.noneOf(LoanExpansion.class);
+        if (expand == null || expand.isBlank()) {
+            return expansions;
+        }
+        for (String value : expand.split(",")) {
+            String name = value.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                expansions.add(LoanExpansion.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown expand value: " + value.trim());
+            }
+        }
+        return expansions;
+    }
+}
@@ -0,0 +1,64 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.util.Hundredths;
+
+public final class LoanMapper {
+
+    private LoanMapper() {
+    }
+
+    public static Loan toEntity(LoanRequestDTO dto) {
+        return Loan.builder()
+                .startDate(dto.getStartDate())
+                .loanEndDate(dto.getLoanEndDate())
+                .totalLoanAmount(dto.getTotalLoanAmount())
+                .loanInterestRate(dto.getLoanInterestRate())
+                .amountReceived(dto.getAmountReceived())
+                .targetCompletionDate(dto.getTargetCompletionDate())
+                .payOffDate(dto.getPayOffDate())
+                .dailyRate(dto.getDailyRate())
+                .productId(dto.getProductId())
+                .customerId(dto.getCustomerId())
+                .status(dto.getStatus())
+                .build();
+    }
+
+    public static LoanResponseDTO toResponse(Loan loan) {
+        return LoanResponseDTO.builder()
+                .loanId(loan.getLoanId())
+                .startDate(loan.getStartDate())
+                .loanEndDate(loan.getLoanEndDate())
+                .totalLoanAmount(loan.getTotalLoanAmount())
+                .loanInterestRate(loan.getLoanInterestRate())
+                .amountReceived(loan.getAmountReceived())
+                .targetCompletionDate(loan.getTargetCompletionDate())
+                .payOffDate(loan.getPayOffDate())
+                .dailyRate(loan.getDailyRate())
+                .productId(loan.getProductId())
+                .customerId(loan.getCustomerId())
+                .status(loan.getStatus())
+                .version(loan.getVersion())
+                .build();
+    }
+
+    public static LoanView toView(Loan loan) {
+        return new LoanView(
+                loan.getLoanId(),
+                loan.getStartDate(),
+                loan.getLoanEndDate(),
+                Hundredths.of(loan.getTotalLoanAmount()),
+                (int) Hundredths.of(loan.getLoanInterestRate()),
+                Hundredths.of(loan.getAmountReceived()),
+                loan.getTargetCompletionDate(),
+                loan.getPayOffDate(),
+                Hundredths.of(loan.getDailyRate()),
+                loan.getProductId(),
+                loan.getCustomerId(),
+                loan.getStatus(),
+                loan.getVersion());
+    }
+}
@@ -1,18 +1,44 @@
 package com.afrisol.LoanService.service;
 
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanPageDTO;
 import com.afrisol.LoanService.dto.LoanRequestDTO;
 import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.dto.StatusTransitionProgressDTO;
+import com.afrisol.LoanService.dto.StatusTransitionRequestDTO;
+import com.afrisol.LoanService.model.Status;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface LoanService {
     Mono<LoanResponseDTO> addLoan(LoanRequestDTO loanRequestDTO, String requestID);
 
-    Mono<LoanResponseDTO> updateLoan(LoanRequestDTO loanRequestDTO, Integer loanId, String requestID);
+    Mono<BulkLoanResultDTO> addLoans(Flux<LoanRequestDTO> loanRequests, String requestID);
+
+    Flux<StatusTransitionProgressDTO> transitionStatus(StatusTransitionRequestDTO request, String requestID);
+
+    Mono<LoanResponseDTO> updateLoan(LoanRequestDTO loanRequestDTO, Integer loanId, List<Long> expectedVersions, String requestID);
+
+    Mono<LoanResponseDTO> mergeLoan(LoanRequestDTO loanPatchDTO, Integer loanId, List<Long> expectedVersions, String requestID);
+
+    Mono<LoanResponseDTO> postRepayment(Integer loanId, RepaymentRequestDTO repaymentRequestDTO, String requestID);
 
     Mono<Void> deleteLoan(Integer loanId, String requestID);
 
-    Flux<LoanResponseDTO> getAllLoans(String requestID);
+    Mono<LoanPageDTO<LoanView>> getLoans(LoanFilterDTO filter, String cursor, Integer size, String requestID);
+
+    Mono<String> getLoansChangeVersion(String requestID);
+
+    Flux<LoanView> exportLoans(LoanFilterDTO filter, String requestID);
+
+    Mono<LoanView> getLoan(Integer loanId, String requestID);
+
+    Flux<LoanResponseDTO> getCustomerLoans(String customerId, Status status, String requestID);
 
-    Mono<LoanResponseDTO> getLoan(Integer loanId, String requestID);
+    Mono<CustomerLoanSummaryDTO> getCustomerLoanSummary(String customerId, String requestID);
 }
@@ -1,27 +1,105 @@
 package com.afrisol.LoanService.service;
 
 
+import com.afrisol.LoanService.cache.LoanCache;
+import com.afrisol.LoanService.config.BulkIngestionProperties;
+import com.afrisol.LoanService.config.ConcurrencyRetryProperties;
+import com.afrisol.LoanService.config.ExportProperties;
+import com.afrisol.LoanService.config.PaginationProperties;
+import com.afrisol.LoanService.config.SchedulerConfig;
+import com.afrisol.LoanService.dto.BulkLoanItemResultDTO;
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanPageDTO;
 import com.afrisol.LoanService.dto.LoanRequestDTO;
 import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.dto.StatusTransitionProgressDTO;
+import com.afrisol.LoanService.dto.StatusTransitionRequestDTO;
+import com.afrisol.LoanService.exception.CustomException;
 import com.afrisol.LoanService.exception.LoanNotFoundException;
+import com.afrisol.LoanService.exception.LoanPreconditionFailedException;
+import com.afrisol.LoanService.exception.LoanVersionConflictException;
 import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepaymentRepository;
 import com.afrisol.LoanService.repository.LoanRepository;
+import com.afrisol.LoanService.routing.ReplicaRead;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class LoanServiceImpl implements LoanService {
 
     private final LoanRepository loanRepository;
+    private final PaginationProperties paginationProperties;
+    private final ExportProperties exportProperties;
+    private final BulkIngestionProperties bulkIngestionProperties;
+    private final Validator validator;
+    private final LoanCache loanCache;
+    private final ConcurrencyRetryProperties retryProperties;
+    private final LoanRepaymentRepository loanRepaymentRepository;
+    private final LoanOutbox loanOutbox;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler blockingScheduler;
 
     @Autowired
-    public LoanServiceImpl(LoanRepository loanRepository) {
+    public LoanServiceImpl(LoanRepository loanRepository,
+                           PaginationProperties paginationProperties,
+                           ExportProperties exportProperties,
+                           BulkIngestionProperties bulkIngestionProperties,
+                           Validator validator,
+                           LoanCache loanCache,
+                           ConcurrencyRetryProperties retryProperties,
+                           LoanRepaymentRepository loanRepaymentRepository,
+                           LoanOutbox loanOutbox,
+                           TransactionalOperator transactionalOperator,
+                           @Qualifier(SchedulerConfig.BLOCKING_SCHEDULER) Scheduler blockingScheduler) {
         this.loanRepository = loanRepository;
+        this.paginationProperties = paginationProperties;
+        this.exportProperties = exportProperties;
+        this.bulkIngestionProperties = bulkIngestionProperties;
+        this.validator = validator;
+        this.loanCache = loanCache;
+        this.retryProperties = retryProperties;
+        this.loanRepaymentRepository = loanRepaymentRepository;
+        this.loanOutbox = loanOutbox;
+        this.transactionalOperator = transactionalOperator;
+        this.blockingScheduler = blockingScheduler;
     }
 
     @Override
@@ -29,101 +107,492 @@ public class LoanServiceImpl implements LoanService {
         if (loanRequestDTO == null) {
             return Mono.error(new IllegalArgumentException("LoanRequestDTO cannot be null"));
         }
-        return loanRepository.save(mapToLoanEntity(loanRequestDTO))
+        return loanRepository.save(LoanMapper.toEntity(loanRequestDTO))
+                .flatMap(savedLoan -> recordEvent(LoanEventType.CREATED, savedLoan))
+                .as(transactionalOperator::transactional)
                 .doOnNext(savedLoan ->
                         log.info("Successfully added loan with ID: {} for request ID: {}", savedLoan.getLoanId(), requestID)
                 )
-                .map(this::mapToLoanResponseDTO);
+                .map(LoanMapper::toResponse);
     }
 
     @Override
-    public Mono<LoanResponseDTO> updateLoan(@Valid LoanRequestDTO loanRequestDTO, Integer loanId, String requestID) {
-        log.info("Updating loan with ID: {} Request ID: {}", loanId, requestID);
+    public Mono<BulkLoanResultDTO> addLoans(Flux<LoanRequestDTO> loanRequests, String requestID) {
+        if (loanRequests == null) {
+            return Mono.error(new IllegalArgumentException("Loan requests cannot be null"));
+        }
+        int maxItems = bulkIngestionProperties.getMaxItems();
+        // The whole request is read and validated before the first chunk commits, so an oversized request
+        // is rejected without leaving a prefix of it inserted. Validating up to max-items requests would hold the
+        // event loop for the whole request, so it runs on the blocking scheduler
+        return loanRequests
+                .take(maxItems + 1L)
+                .index()
+                .publishOn(blockingScheduler)
+                .map(indexed -> validateBulkItem(indexed.getT1().intValue(), indexed.getT2()))
+                .collectList()
+                .flatMap(validated -> validated.size() > maxItems
+                        ? Mono.error(new IllegalArgumentException("Bulk request cannot contain more than " + maxItems + " loans"))
+                        : Flux.fromIterable(validated)
+                                .buffer(bulkIngestionProperties.getChunkSize())
+                                .concatMap(this::insertChunk)
+                                .collectList())
+                .map(items -> {
+                    int accepted = (int) items.stream().filter(item -> item.getLoanId() != null).count();
+                    log.info("Bulk ingestion accepted {} of {} loans for request ID: {}", accepted, items.size(), requestID);
+                    return BulkLoanResultDTO.builder()
+                            .accepted(accepted)
+                            .rejected(items.size() - accepted)
+                            .items(items)
+                            .build();
+                });
+    }
 
-        return loanRepository.findById(loanId)
+    @Override
+    public Flux<StatusTransitionProgressDTO> transitionStatus(StatusTransitionRequestDTO request, String requestID) {
+        if (request == null || request.getTargetStatus() == null) {
+            return Flux.error(new IllegalArgumentException("Target status cannot be null"));
+        }
+        if ((request.getLoanIds() == null) == (request.getFilter() == null)) {
+            return Flux.error(new IllegalArgumentException("Exactly one of loanIds or filter must be given"));
+        }
+        int maxItems = bulkIngestionProperties.getMaxItems();
+        if (request.getLoanIds() != null && request.getLoanIds().size() > maxItems) {
+            return Flux.error(new IllegalArgumentException("Status transition cannot list more than " + maxItems + " loans"));
+        }
+        log.info("Transitioning loans to {} for request ID: {}", request.getTargetStatus(), requestID);
+        int chunkSize = bulkIngestionProperties.getTransitionChunkSize();
+        // IDs are updated in ascending order, so concurrent transitions lock rows in the same order
+        Flux<List<Integer>> chunks = request.getLoanIds() != null
+                ? Flux.fromStream(request.getLoanIds().stream().filter(Objects::nonNull).distinct().sorted())
+                        .buffer(chunkSize)
+                : matchingIdChunks(request.getFilter(), chunkSize);
+        return Flux.defer(() -> {
+            TransitionTotals totals = new TransitionTotals();
+            return chunks
+                    .concatMap(loanIds -> transitionChunk(loanIds, request.getTargetStatus()).map(totals::add))
+                    .concatWith(Mono.fromCallable(() -> {
+                        log.info("Transitioned {} loans to {}, skipped {}, failed {} for request ID: {}",
+                                totals.transitioned, request.getTargetStatus(), totals.skipped, totals.failed, requestID);
+                        return totals.summary();
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<LoanResponseDTO> updateLoan(@Valid LoanRequestDTO loanRequestDTO, Integer loanId, List<Long> expectedVersions, String requestID) {
+        log.debug("Updating loan with ID: {} Request ID: {}", loanId, requestID);
+
+        // A single UPDATE ... RETURNING both checks existence and writes, with no read-modify-write window
+        return loanRepository.updateReturning(loanId, LoanMapper.toEntity(loanRequestDTO), expectedVersions)
+                .switchIfEmpty(Mono.defer(() -> updateMissed(loanId, expectedVersions,
+                        () -> new LoanPreconditionFailedException("Loan " + loanId + " does not match If-Match"))))
+                .flatMap(updatedLoan -> recordEvent(LoanEventType.UPDATED, updatedLoan))
+                .flatMap(updatedLoan -> evictAfterCommit(List.of(loanId)).thenReturn(updatedLoan))
+                .as(transactionalOperator::transactional)
+                .doOnNext(updatedLoan ->
+                        log.info("Successfully updated loan with ID: {} for request ID: {}", updatedLoan.getLoanId(), requestID)
+                )
+                .map(LoanMapper::toResponse);
+    }
+
+    @Override
+    public Mono<LoanResponseDTO> mergeLoan(LoanRequestDTO loanPatchDTO, Integer loanId, List<Long> expectedVersions, String requestID) {
+        log.debug("Merging loan with ID: {} Request ID: {}", loanId, requestID);
+        if (loanPatchDTO == null) {
+            return Mono.error(new IllegalArgumentException("LoanRequestDTO cannot be null"));
+        }
+        Mono<Loan> merge = Mono.defer(() -> loanRepository.findById(loanId)
                 .switchIfEmpty(Mono.error(new LoanNotFoundException("Loan not found with ID: " + loanId)))
                 .flatMap(existingLoan -> {
-                    // Update loan fields
-                    existingLoan.setStartDate(loanRequestDTO.getStartDate());
-                    existingLoan.setLoanEndDate(loanRequestDTO.getLoanEndDate());
-                    existingLoan.setTotalLoanAmount(loanRequestDTO.getTotalLoanAmount());
-                    existingLoan.setLoanInterestRate(loanRequestDTO.getLoanInterestRate());
-                    existingLoan.setAmountReceived(loanRequestDTO.getAmountReceived());
-                    existingLoan.setTargetCompletionDate(loanRequestDTO.getTargetCompletionDate());
-                    existingLoan.setPayOffDate(loanRequestDTO.getPayOffDate());
-                    existingLoan.setDailyRate(loanRequestDTO.getDailyRate());
-                    existingLoan.setProductId(loanRequestDTO.getProductId());
-                    existingLoan.setCustomerId(loanRequestDTO.getCustomerId());
-                    existingLoan.setStatus(loanRequestDTO.getStatus());
-                    return loanRepository.save(existingLoan);
+                    if (expectedVersions != null && !expectedVersions.contains(existingLoan.getVersion())) {
+                        return Mono.<Loan>error(new LoanPreconditionFailedException("Loan " + loanId + " does not match If-Match"));
+                    }
+                    List<Long> readVersion = List.of(existingLoan.getVersion());
+                    Loan mergedLoan = mergeIntoLoan(existingLoan, loanPatchDTO);
+                    Set<String> violations = patchViolations(loanPatchDTO, mergedLoan);
+                    if (!violations.isEmpty()) {
+                        return Mono.<Loan>error(new IllegalArgumentException(String.join(", ", violations)));
+                    }
+                    // A write between the read and the update is a conflict to retry, unless the client pinned the
+                    // version it read with If-Match, which that write has now invalidated
+                    return loanRepository.updateReturning(loanId, mergedLoan, readVersion)
+                            .switchIfEmpty(Mono.defer(() -> updateMissed(loanId, readVersion, () -> expectedVersions != null
+                                    ? new LoanPreconditionFailedException("Loan " + loanId + " does not match If-Match")
+                                    : new LoanVersionConflictException("Loan " + loanId + " has been modified"))));
                 })
-                .doOnNext(updatedLoan ->
-                        log.info("Successfully updated loan with ID: {} for request ID: {}", updatedLoan.getLoanId(), requestID)
+                .flatMap(mergedLoan -> recordEvent(LoanEventType.UPDATED, mergedLoan))
+                .flatMap(mergedLoan -> evictAfterCommit(List.of(loanId)).thenReturn(mergedLoan))
+                .as(transactionalOperator::transactional));
+        // Without If-Match the client asked for a field merge, which is safe to replay against a fresher read
+        if (expectedVersions == null && retryProperties.isEnabled()) {
+            merge = merge.retryWhen(Retry.backoff(retryProperties.getMaxAttempts(), retryProperties.getMinBackoff())
+                    .maxBackoff(retryProperties.getMaxBackoff())
+                    .jitter(retryProperties.getJitter())
+                    .filter(LoanVersionConflictException.class::isInstance)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+        return merge
+                .doOnNext(mergedLoan ->
+                        log.info("Successfully merged loan with ID: {} for request ID: {}", loanId, requestID)
                 )
-                .map(this::mapToLoanResponseDTO);
+                .map(LoanMapper::toResponse);
+    }
+
+    @Override
+    public Mono<LoanResponseDTO> postRepayment(Integer loanId, RepaymentRequestDTO repaymentRequestDTO, String requestID) {
+        if (loanId == null || repaymentRequestDTO == null) {
+            return Mono.error(new IllegalArgumentException("Loan ID and repayment cannot be null"));
+        }
+        LocalDate paymentDate = repaymentRequestDTO.getPaymentDate() != null
+                ? repaymentRequestDTO.getPaymentDate()
+                : LocalDate.now();
+        return loanRepository.applyRepayment(loanId, repaymentRequestDTO.getPaymentReference(),
+                        repaymentRequestDTO.getAmount(), paymentDate)
+                .flatMap(updatedLoan -> recordEvent(LoanEventType.UPDATED, updatedLoan))
+                .flatMap(updatedLoan -> evictAfterCommit(List.of(loanId)).thenReturn(updatedLoan))
+                .as(transactionalOperator::transactional)
+                .doOnNext(updatedLoan -> log.info("Posted repayment {} to loan with ID: {} for request ID: {}",
+                        repaymentRequestDTO.getPaymentReference(), loanId, requestID))
+                .switchIfEmpty(Mono.defer(() -> replayRepayment(loanId, repaymentRequestDTO)))
+                .map(LoanMapper::toResponse);
     }
 
     @Override
     public Mono<Void> deleteLoan(Integer loanId, String requestID) {
-        log.info("Deleting loan with ID: {} Request ID: {}", loanId, requestID);
+        log.debug("Deleting loan with ID: {} Request ID: {}", loanId, requestID);
         if (loanId == null) {
             return Mono.error(new IllegalArgumentException("Invalid loan ID"));
         }
-        return loanRepository.findById(loanId)
-                .switchIfEmpty(Mono.error(new LoanNotFoundException("Loan not found with ID: " + loanId)))
-                .flatMap(loanRepository::delete)
+        return loanRepository.deleteByLoanId(loanId)
+                .flatMap(deletedRows -> deletedRows == 0
+                        ? Mono.<Void>error(new LoanNotFoundException("Loan not found with ID: " + loanId))
+                        : loanOutbox.recordRemoved(LoanEventType.DELETED, List.of(loanId))
+                                .then(evictAfterCommit(List.of(loanId))))
+                .as(transactionalOperator::transactional)
                 .doOnSuccess(unused -> log.info("Successfully deleted loan with ID: {} for request ID: {}", loanId, requestID));
     }
 
     @Override
-    public Flux<LoanResponseDTO> getAllLoans(String requestID) {
-        log.info("Retrieving all loans for request ID: {}", requestID);
-        return loanRepository.findAll().map(this::mapToLoanResponseDTO);
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public Mono<LoanPageDTO<LoanView>> getLoans(LoanFilterDTO filter, String cursor, Integer size, String requestID) {
+        log.info("Retrieving loan page for request ID: {}", requestID);
+        if (size != null && size < 1) {
+            return Mono.error(new IllegalArgumentException("Page size must be greater than 0"));
+        }
+        int pageSize = size == null
+                ? paginationProperties.getDefaultSize()
+                : Math.min(size, paginationProperties.getMaxSize());
+        Integer afterLoanId;
+        try {
+            afterLoanId = LoanCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        // The version is read first on the same connection, so the page is never older than the ETag built from it
+        // Fetch one extra row to learn whether another page exists without a count query
+        return loanOutbox.changeVersion()
+                .flatMap(changeVersion -> loanRepository.findPage(filter, afterLoanId, pageSize + 1)
+                        .collectList()
+                        .map(loans -> toLoanPage(loans, pageSize, changeVersion)));
+    }
+
+    @Override
+    @ReplicaRead
+    public Mono<String> getLoansChangeVersion(String requestID) {
+        log.debug("Reading loan change version for request ID: {}", requestID);
+        return loanOutbox.changeVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public Flux<LoanView> exportLoans(LoanFilterDTO filter, String requestID) {
+        log.info("Exporting loans for request ID: {}", requestID);
+        int fetchSize = exportProperties.getFetchSize();
+        return loanRepository.streamLoanViews(filter, fetchSize)
+                .limitRate(fetchSize);
     }
 
+    // Not a replica read: a lagging replica read right after an invalidation would stay cached until expiry
     @Override
-    public Mono<LoanResponseDTO> getLoan(Integer loanId, String requestID) {
+    public Mono<LoanView> getLoan(Integer loanId, String requestID) {
         if (loanId == null) {
             return Mono.error(new IllegalArgumentException("Loan ID cannot be null"));
         }
-        log.info("Searching for loan with ID: {}", loanId);
-        return loanRepository.findById(loanId)
+        log.debug("Searching for loan with ID: {}", loanId);
+        // Closed loans may have been moved to the archive; only misses on the live table pay for the second lookup
+        return loanCache.get(loanId, id -> loanRepository.findViewById(id)
+                        .switchIfEmpty(Mono.defer(() -> loanRepository.findArchivedViewById(id))))
                 .switchIfEmpty(Mono.error(new LoanNotFoundException("Loan not found with ID: " + loanId)))
-                .map(this::mapToLoanResponseDTO)
                 .doOnNext(loan ->
                         log.info("Successfully retrieved loan with ID: {} for request ID: {}", loanId, requestID)
                 );
     }
 
-    private Loan mapToLoanEntity(LoanRequestDTO dto) {
-        return Loan.builder()
-                .startDate(dto.getStartDate())
-                .loanEndDate(dto.getLoanEndDate())
-                .totalLoanAmount(dto.getTotalLoanAmount())
-                .loanInterestRate(dto.getLoanInterestRate())
-                .amountReceived(dto.getAmountReceived())
-                .targetCompletionDate(dto.getTargetCompletionDate())
-                .payOffDate(dto.getPayOffDate())
-                .dailyRate(dto.getDailyRate())
-                .productId(dto.getProductId())
-                .customerId(dto.getCustomerId())
-                .status(dto.getStatus())
-                .build();
+    @Override
+    @ReplicaRead
+    public Flux<LoanResponseDTO> getCustomerLoans(String customerId, Status status, String requestID) {
+        if (customerId == null || customerId.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Customer ID cannot be blank"));
+        }
+        log.info("Retrieving loans for customer ID: {} Request ID: {}", customerId, requestID);
+        Flux<Loan> loans = status == null
+                ? loanRepository.findByCustomerIdOrderByLoanId(customerId)
+                : loanRepository.findByCustomerIdAndStatusOrderByLoanId(customerId, status);
+        return loans.map(LoanMapper::toResponse);
+    }
+
+    @Override
+    @ReplicaRead
+    public Mono<CustomerLoanSummaryDTO> getCustomerLoanSummary(String customerId, String requestID) {
+        if (customerId == null || customerId.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Customer ID cannot be blank"));
+        }
+        log.info("Summarising loans for customer ID: {} Request ID: {}", customerId, requestID);
+        return loanRepository.summarizeByCustomerId(customerId)
+                .doOnNext(summary -> summary.setCustomerId(customerId));
+    }
+
+    // The outbox row commits or rolls back with the loan write; outbox readers only see committed writes
+    private Mono<Loan> recordEvent(LoanEventType type, Loan loan) {
+        return loanOutbox.record(type, loan).thenReturn(loan);
+    }
+
+    // Evicts once the enclosing transaction commits, which is the caller's when the write joined one (an idempotent
+    // request also stores its response before committing). Evicting earlier lets a concurrent read put the row
+    // that is about to be replaced back into the cache.
+    private Mono<Void> evictAfterCommit(List<Integer> loanIds) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(() -> loanIds.forEach(loanCache::invalidate));
+                    }
+                }))
+                .then()
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(() -> loanIds.forEach(loanCache::invalidate)));
+    }
+
+    private void assignInsertedIds(List<Loan> loans, List<Integer> loanIds) {
+        // insertAll returns generated keys in insert order; new rows start at the column default version
+        for (int i = 0; i < loanIds.size(); i++) {
+            Loan loan = loans.get(i);
+            loan.setLoanId(loanIds.get(i));
+            loan.setVersion(0L);
+        }
     }
 
-    private LoanResponseDTO mapToLoanResponseDTO(Loan loan) {
-        return LoanResponseDTO.builder()
-                .startDate(loan.getStartDate())
-                .loanEndDate(loan.getLoanEndDate())
-                .totalLoanAmount(loan.getTotalLoanAmount())
-                .loanInterestRate(loan.getLoanInterestRate())
-                .amountReceived(loan.getAmountReceived())
-                .targetCompletionDate(loan.getTargetCompletionDate())
-                .payOffDate(loan.getPayOffDate())
-                .dailyRate(loan.getDailyRate())
-                .productId(loan.getProductId())
-                .customerId(loan.getCustomerId())
-                .status(loan.getStatus())
+    private Mono<Loan> replayRepayment(Integer loanId, RepaymentRequestDTO repaymentRequestDTO) {
+        // Nothing was applied: either the reference was already posted (a retry) or the loan does not exist
+        return loanRepaymentRepository.findById(repaymentRequestDTO.getPaymentReference())
+                .flatMap(existing -> {
+                    if (!existing.getLoanId().equals(loanId)
+                            || existing.getAmount().compareTo(repaymentRequestDTO.getAmount()) != 0) {
+                        return Mono.<Loan>error(new CustomException(HttpStatus.CONFLICT,
+                                "Payment reference " + existing.getPaymentReference() + " was already used for a different repayment"));
+                    }
+                    log.info("Repayment {} for loan with ID: {} was already posted", existing.getPaymentReference(), loanId);
+                    return loanRepository.findById(loanId);
+                })
+                .switchIfEmpty(Mono.error(new LoanNotFoundException("Loan not found with ID: " + loanId)));
+    }
+
+    private Mono<Loan> updateMissed(Integer loanId, List<Long> expectedVersions, Supplier<RuntimeException> staleVersion) {
+        // Only the failure path pays for the extra lookup that tells a stale version from a missing loan
+        if (expectedVersions == null) {
+            return Mono.error(new LoanNotFoundException("Loan not found with ID: " + loanId));
+        }
+        return loanRepository.existsById(loanId)
+                .flatMap(exists -> Mono.<Loan>error(exists
+                        ? staleVersion.get()
+                        : new LoanNotFoundException("Loan not found with ID: " + loanId)));
+    }
+
+    private Loan mergeIntoLoan(Loan existingLoan, LoanRequestDTO patch) {
+        if (patch.getStartDate() != null) {
+            existingLoan.setStartDate(patch.getStartDate());
+        }
+        if (patch.getLoanEndDate() != null) {
+            existingLoan.setLoanEndDate(patch.getLoanEndDate());
+        }
+        if (patch.getTotalLoanAmount() != null) {
+            existingLoan.setTotalLoanAmount(patch.getTotalLoanAmount());
+        }
+        if (patch.getLoanInterestRate() != null) {
+            existingLoan.setLoanInterestRate(patch.getLoanInterestRate());
+        }
+        if (patch.getAmountReceived() != null) {
+            existingLoan.setAmountReceived(patch.getAmountReceived());
+        }
+        if (patch.getTargetCompletionDate() != null) {
+            existingLoan.setTargetCompletionDate(patch.getTargetCompletionDate());
+        }
+        if (patch.getPayOffDate() != null) {
+            existingLoan.setPayOffDate(patch.getPayOffDate());
+        }
+        if (patch.getDailyRate() != null) {
+            existingLoan.setDailyRate(patch.getDailyRate());
+        }
+        if (patch.getProductId() != null) {
+            existingLoan.setProductId(patch.getProductId());
+        }
+        if (patch.getCustomerId() != null) {
+            existingLoan.setCustomerId(patch.getCustomerId());
+        }
+        if (patch.getStatus() != null) {
+            existingLoan.setStatus(patch.getStatus());
+        }
+        return existingLoan;
+    }
+
+    // Only fields the patch sets, plus bean-level checks, are validated: time-relative constraints such as
+    // @FutureOrPresent would otherwise reject any patch to a loan whose end or target date has passed
+    private Set<String> patchViolations(LoanRequestDTO patch, Loan mergedLoan) {
+        BeanWrapper patchFields = new BeanWrapperImpl(patch);
+        return validator.validate(mergedLoan).stream()
+                .filter(violation -> {
+                    String property = violation.getPropertyPath().toString();
+                    return property.isEmpty()
+                            || patchFields.isReadableProperty(property) && patchFields.getPropertyValue(property) != null;
+                })
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toSet());
+    }
+
+    private BulkItem validateBulkItem(int index, LoanRequestDTO dto) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (dto == null) {
+            errors.put("loan", "Loan request cannot be null");
+            return new BulkItem(index, null, errors);
+        }
+        for (ConstraintViolation<LoanRequestDTO> violation : validator.validate(dto)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return new BulkItem(index, dto, errors);
+    }
+
+    private Flux<BulkLoanItemResultDTO> insertChunk(List<BulkItem> chunk) {
+        List<Loan> loans = chunk.stream()
+                .filter(BulkItem::isValid)
+                .map(item -> LoanMapper.toEntity(item.request()))
+                .toList();
+        return loanRepository.insertAll(loans)
+                .collectList()
+                .flatMap(loanIds -> {
+                    assignInsertedIds(loans, loanIds);
+                    return loanOutbox.recordAll(LoanEventType.CREATED, loans).thenReturn(loanIds);
+                })
+                .as(transactionalOperator::transactional)
+                .map(loanIds -> toItemResults(chunk, loanIds.iterator(), null))
+                .onErrorResume(e -> {
+                    log.error("Bulk insert of {} loans failed: {}", loans.size(), e.getMessage());
+                    return Mono.just(toItemResults(chunk, null, e.getMessage()));
+                })
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    // Keyset pages of matching IDs; each page is selected after the previous one so the cursor only moves forward
+    private Flux<List<Integer>> matchingIdChunks(LoanFilterDTO filter, int chunkSize) {
+        Function<Integer, Mono<List<Integer>>> page = afterLoanId ->
+                loanRepository.findIdPage(filter, afterLoanId, chunkSize).collectList();
+        return page.apply(null)
+                .expand(loanIds -> loanIds.size() < chunkSize
+                        ? Mono.empty()
+                        : page.apply(loanIds.get(loanIds.size() - 1)))
+                .filter(loanIds -> !loanIds.isEmpty());
+    }
+
+    // One UPDATE ... RETURNING and one batched outbox insert per chunk, committed together
+    private Mono<TransitionChunk> transitionChunk(List<Integer> loanIds, Status targetStatus) {
+        return loanRepository.transitionStatus(loanIds, targetStatus)
+                .collectList()
+                .flatMap(loans -> loanOutbox.recordAll(LoanEventType.UPDATED, loans)
+                        .then(evictAfterCommit(loans.stream().map(Loan::getLoanId).toList()))
+                        .thenReturn(loans))
+                .as(transactionalOperator::transactional)
+                .map(loans -> new TransitionChunk(loanIds, loans, null))
+                .onErrorResume(e -> {
+                    log.error("Status transition of {} loans failed: {}", loanIds.size(), e.getMessage());
+                    return Mono.just(new TransitionChunk(loanIds, List.of(), e.getMessage()));
+                });
+    }
+
+    private List<BulkLoanItemResultDTO> toItemResults(List<BulkItem> chunk, Iterator<Integer> loanIds, String insertError) {
+        List<BulkLoanItemResultDTO> results = new ArrayList<>(chunk.size());
+        for (BulkItem item : chunk) {
+            BulkLoanItemResultDTO.BulkLoanItemResultDTOBuilder result = BulkLoanItemResultDTO.builder().index(item.index());
+            if (!item.isValid()) {
+                result.errors(item.errors());
+            } else if (insertError != null) {
+                result.errors(Map.of("error", insertError));
+            } else {
+                result.loanId(loanIds.next());
+            }
+            results.add(result.build());
+        }
+        return results;
+    }
+
+    private LoanPageDTO<LoanView> toLoanPage(List<LoanView> loans, int pageSize, String changeVersion) {
+        boolean hasMore = loans.size() > pageSize;
+        List<LoanView> page = hasMore ? loans.subList(0, pageSize) : loans;
+        String nextCursor = hasMore ? LoanCursor.encode(page.get(page.size() - 1).loanId()) : null;
+        return LoanPageDTO.<LoanView>builder()
+                .loans(page)
+                .nextCursor(nextCursor)
+                .changeVersion(changeVersion)
                 .build();
     }
+
+    private record TransitionChunk(List<Integer> loanIds, List<Loan> transitioned, String error) {
+    }
+
+    private static final class TransitionTotals {
+        private int chunks;
+        private long transitioned;
+        private long skipped;
+        private long failed;
+        private Integer lastLoanId;
+
+        StatusTransitionProgressDTO add(TransitionChunk chunk) {
+            chunks++;
+            lastLoanId = chunk.loanIds().get(chunk.loanIds().size() - 1);
+            StatusTransitionProgressDTO.StatusTransitionProgressDTOBuilder progress = StatusTransitionProgressDTO.builder()
+                    .chunk(chunks)
+                    .lastLoanId(lastLoanId);
+            if (chunk.error() != null) {
+                failed += chunk.loanIds().size();
+                progress.failed(chunk.loanIds().size()).error(chunk.error());
+            } else {
+                Set<Integer> updated = chunk.transitioned().stream().map(Loan::getLoanId).collect(Collectors.toSet());
+                List<Integer> skippedLoanIds = chunk.loanIds().stream().filter(id -> !updated.contains(id)).toList();
+                transitioned += updated.size();
+                skipped += skippedLoanIds.size();
+                progress.transitioned(updated.size()).skipped(skippedLoanIds.size()).skippedLoanIds(skippedLoanIds);
+            }
+            return progress.totalTransitioned(transitioned)
+                    .totalSkipped(skipped)
+                    .totalFailed(failed)
+                    .build();
+        }
+
+        StatusTransitionProgressDTO summary() {
+            return StatusTransitionProgressDTO.builder()
+                    .chunk(chunks)
+                    .totalTransitioned(transitioned)
+                    .totalSkipped(skipped)
+                    .totalFailed(failed)
+                    .lastLoanId(lastLoanId)
+                    .complete(true)
+                    .build();
+        }
+    }
+
+    private record BulkItem(int index, LoanRequestDTO request, Map<String, String> errors) {
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
 }
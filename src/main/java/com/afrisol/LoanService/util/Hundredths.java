@@ -0,0 +1,49 @@
+package com.afrisol.LoanService.util;
+
+import java.math.BigDecimal;
+
+// Fixed-point values with two decimal places held as a long count of hundredths, matching the NUMERIC(p, 2)
+// columns exactly; amounts beyond Long.MAX_VALUE / 100 are rejected by the database cast rather than truncated
+public final class Hundredths {
+
+    private Hundredths() {
+    }
+
+    public static BigDecimal toDecimal(long hundredths) {
+        return BigDecimal.valueOf(hundredths, 2);
+    }
+
+    public static long of(BigDecimal value) {
+        return value.movePointRight(2).longValueExact();
+    }
+
+    // Writes e.g. -1234.05 into the buffer from the offset and returns the end position
+    public static int format(long hundredths, char[] buffer, int offset) {
+        int position = offset;
+        long magnitude = hundredths;
+        if (hundredths < 0) {
+            buffer[position++] = '-';
+            magnitude = -hundredths;
+        }
+        long units = magnitude / 100;
+        int fraction = (int) (magnitude % 100);
+        int digitsStart = position;
+        do {
+            buffer[position++] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+        reverse(buffer, digitsStart, position - 1);
+        buffer[position++] = '.';
+        buffer[position++] = (char) ('0' + fraction / 10);
+        buffer[position++] = (char) ('0' + fraction % 10);
+        return position;
+    }
+
+    private static void reverse(char[] buffer, int from, int to) {
+        while (from < to) {
+            char swap = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = swap;
+        }
+    }
+}
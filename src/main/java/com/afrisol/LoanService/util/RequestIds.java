@@ -0,0 +1,38 @@
+package com.afrisol.LoanService.util;
+
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+public final class RequestIds {
+
+    public static final String HEADER = "X-Request-ID";
+    // Reactor Context and MDC key
+    public static final String KEY = "requestID";
+
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private RequestIds() {
+    }
+
+    // Random (version 4) UUID from ThreadLocalRandom; UUID.randomUUID() locks a shared SecureRandom on the event loop
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    // The ID of the request being handled, restored into the MDC from the Reactor Context; a new one outside a request
+    public static String current() {
+        String requestID = MDC.get(KEY);
+        return requestID != null ? requestID : next();
+    }
+
+    // Client-supplied IDs end up in every log line, so only short, plain ones are accepted
+    public static boolean isAcceptable(String requestID) {
+        return requestID != null && VALID.matcher(requestID).matches();
+    }
+}
@@ -0,0 +1,28 @@
+package com.afrisol.LoanService.web;
+
+import org.springframework.http.HttpMethod;
+
+public enum EndpointClass {
+    // Pages, exports and per-customer listings: few callers, each holding a connection for long
+    LIST,
+    // Single-loan reads and in-memory analytics
+    READ,
+    WRITE,
+    // Long-lived change feed connections; rate limited but not counted against the pools above
+    FEED;
+
+    public static EndpointClass of(HttpMethod method, String path) {
+        if (path.startsWith("/api/v1/loans/changes")) {
+            return FEED;
+        }
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return WRITE;
+        }
+        if (path.equals("/api/v1/loans") || path.equals("/api/v1/loans/")
+                || path.startsWith("/api/v1/loans/export")
+                || (path.startsWith("/api/v1/customers/") && path.endsWith("/loans"))) {
+            return LIST;
+        }
+        return READ;
+    }
+}
@@ -0,0 +1,37 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.config.ConnectionPoolConfig;
+import com.afrisol.LoanService.config.MeteredConnectionFactory;
+import com.afrisol.LoanService.config.RateLimitProperties;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoadShedder {
+
+    private final RateLimitProperties.Shedding properties;
+    private final ConnectionPool pool;
+    private final MeteredConnectionFactory meteredConnectionFactory;
+
+    public LoadShedder(ConnectionFactory connectionFactory, RateLimitProperties properties) {
+        this.properties = properties.getShedding();
+        this.pool = ConnectionPoolConfig.findPool(connectionFactory);
+        // With read replicas both lookups resolve to the primary, which carries the writes worth protecting
+        this.meteredConnectionFactory = ConnectionPoolConfig.findMetered(connectionFactory);
+    }
+
+    // Overloaded once requests queue for database connections, or recent acquires have become slow
+    public boolean isOverloaded() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (pool != null && pool.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0) > properties.getMaxPendingAcquires()) {
+            return true;
+        }
+        return meteredConnectionFactory != null && meteredConnectionFactory
+                .recentAcquireTime(properties.getAcquireTimeStaleAfter())
+                .compareTo(properties.getMaxAcquireTime()) > 0;
+    }
+}
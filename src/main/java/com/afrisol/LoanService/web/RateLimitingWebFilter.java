@@ -0,0 +1,137 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class RateLimitingWebFilter implements WebFilter {
+
+    private final RateLimitProperties properties;
+    private final LoadShedder loadShedder;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<EndpointClass, AtomicInteger> inFlight = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    public RateLimitingWebFilter(RateLimitProperties properties, LoadShedder loadShedder, MeterRegistry meterRegistry) {
+        this(properties, loadShedder, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitingWebFilter(RateLimitProperties properties, LoadShedder loadShedder, MeterRegistry meterRegistry,
+                          LongSupplier nanoTime) {
+        this.properties = properties;
+        this.loadShedder = loadShedder;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        // Idle clients are forgotten, so spoofed keys or addresses cannot grow the map without bound
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            AtomicInteger active = new AtomicInteger();
+            inFlight.put(endpoint, active);
+            meterRegistry.gauge("loan.ratelimit.inflight", Tags.of("endpoint", endpoint.name().toLowerCase()), active);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!properties.isEnabled() || !path.startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        EndpointClass endpoint = EndpointClass.of(request.getMethod(), path);
+
+        long waitNanos = bucketFor(request).tryConsume(nanoTime.getAsLong());
+        if (waitNanos > 0) {
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, endpoint, "rate_limited",
+                    Duration.ofNanos(waitNanos), "Rate limit exceeded");
+        }
+        // Shed the expensive classes first so interactive reads and writes keep their connections
+        if (properties.getShedding().getClasses().contains(endpoint) && loadShedder.isOverloaded()) {
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, endpoint, "shed",
+                    properties.getShedding().getRetryAfter(), "Service is overloaded, retry later");
+        }
+        Integer limit = properties.getMaxConcurrency().get(endpoint);
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+        AtomicInteger active = inFlight.get(endpoint);
+        if (active.incrementAndGet() > limit) {
+            active.decrementAndGet();
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, endpoint, "concurrency",
+                    properties.getShedding().getRetryAfter(), "Too many concurrent requests, retry later");
+        }
+        return Mono.defer(() -> chain.filter(exchange))
+                .doFinally(signal -> active.decrementAndGet());
+    }
+
+    private TokenBucket bucketFor(ServerHttpRequest request) {
+        // Only configured keys get their own bucket; any other value could be rotated to get a fresh one per request
+        String apiKey = request.getHeaders().getFirst(properties.getApiKeyHeader());
+        RateLimitProperties.Bucket configured = apiKey != null ? properties.getClients().get(apiKey) : null;
+        if (configured != null) {
+            return buckets.get("key:" + apiKey, ignored -> newBucket(configured));
+        }
+        return buckets.get("addr:" + remoteAddress(request), ignored -> newBucket(properties.getDefaultBucket()));
+    }
+
+    private TokenBucket newBucket(RateLimitProperties.Bucket bucket) {
+        return new TokenBucket(bucket.getCapacity(), bucket.getRefillPerSecond(), nanoTime.getAsLong());
+    }
+
+    // The forwarded client address when server.forward-headers-strategy is framework, rather than the proxy's
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, EndpointClass endpoint, String reason,
+                              Duration retryAfter, String message) {
+        meterRegistry.counter("loan.ratelimit.rejected",
+                "endpoint", endpoint.name().toLowerCase(),
+                "reason", reason).increment();
+        log.debug("Rejected {} {} with {}: {}", exchange.getRequest().getMethod(), exchange.getRequest().getPath(), status, reason);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory()
+                .wrap(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,29 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.routing.DatabaseTarget;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ReadConsistencyWebFilter implements WebFilter {
+
+    public static final String HEADER = "X-Read-Consistency";
+    public static final String STRONG = "strong";
+
+    // Clients that must see their own just-made writes send X-Read-Consistency: strong to read from the primary
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String consistency = exchange.getRequest().getHeaders().getFirst(HEADER);
+        if (!STRONG.equalsIgnoreCase(consistency)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(DatabaseTarget.CONTEXT_KEY, DatabaseTarget.PRIMARY));
+    }
+}
@@ -0,0 +1,25 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.util.RequestIds;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdWebFilter implements WebFilter {
+
+    // Reuses the caller's X-Request-ID so one ID follows a request across services, and echoes it back
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String inbound = exchange.getRequest().getHeaders().getFirst(RequestIds.HEADER);
+        String requestID = RequestIds.isAcceptable(inbound) ? inbound : RequestIds.next();
+        exchange.getResponse().getHeaders().set(RequestIds.HEADER, requestID);
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestIds.KEY, requestID));
+    }
+}
@@ -0,0 +1,4 @@
+-- The archival job now selects by closure time; CONCURRENTLY keeps the table writable, so Flyway runs this
+-- script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_closed_at ON loan (closed_at) WHERE closed_at IS NOT NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_loan_closed;
@@ -0,0 +1,37 @@
+-- Baseline: the schema previously created by schema.sql; IF NOT EXISTS keeps it safe on databases created by hand
+CREATE TABLE IF NOT EXISTS loan (
+    loan_id                SERIAL PRIMARY KEY,
+    start_date             DATE           NOT NULL,
+    loan_end_date          DATE           NOT NULL,
+    total_loan_amount      NUMERIC(19, 2) NOT NULL,
+    loan_interest_rate     NUMERIC(5, 2)  NOT NULL,
+    amount_received        NUMERIC(19, 2) NOT NULL,
+    target_completion_date DATE           NOT NULL,
+    pay_off_date           DATE,
+    daily_rate             NUMERIC(19, 2) NOT NULL,
+    product_id             VARCHAR(64)    NOT NULL,
+    customer_id            VARCHAR(64)    NOT NULL,
+    status                 VARCHAR(16)    NOT NULL,
+    version                BIGINT         NOT NULL DEFAULT 0
+);
+
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Keyset pagination orders by loan_id, so every filter column leads a composite index ending in loan_id
+CREATE INDEX IF NOT EXISTS idx_loan_status_loan_id ON loan (status, loan_id);
+CREATE INDEX IF NOT EXISTS idx_loan_customer_id_loan_id ON loan (customer_id, loan_id);
+CREATE INDEX IF NOT EXISTS idx_loan_product_id_loan_id ON loan (product_id, loan_id);
+-- Covers the per-customer summary (count/sums by status) with an index-only scan
+CREATE INDEX IF NOT EXISTS idx_loan_customer_id_status ON loan (customer_id, status) INCLUDE (total_loan_amount, amount_received);
+CREATE INDEX IF NOT EXISTS idx_loan_start_date ON loan (start_date);
+CREATE INDEX IF NOT EXISTS idx_loan_loan_end_date ON loan (loan_end_date);
+
+-- Payment references make repayment postings idempotent; a replayed reference inserts nothing
+CREATE TABLE IF NOT EXISTS loan_repayment (
+    payment_reference VARCHAR(64)    PRIMARY KEY,
+    loan_id           INTEGER        NOT NULL REFERENCES loan (loan_id) ON DELETE CASCADE,
+    amount            NUMERIC(19, 2) NOT NULL,
+    payment_date      DATE           NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_repayment_loan_id ON loan_repayment (loan_id);
@@ -0,0 +1,3 @@
+-- Each connection reserves 50 ids per sequence round trip, which keeps bulk inserts from serialising on nextval.
+-- Ids stay unique but are no longer gap-free or strictly in commit order.
+ALTER SEQUENCE loan_loan_id_seq CACHE 50;
@@ -0,0 +1,7 @@
+-- Partial indexes over the ACTIVE working set: much smaller than their full-table counterparts and
+-- the ones the planner picks for collections and dashboard queries that filter on status = 'ACTIVE'.
+-- CONCURRENTLY keeps the table writable while they build; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_active_customer_id_loan_id ON loan (customer_id, loan_id) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_active_product_id_loan_id ON loan (product_id, loan_id) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_active_target_completion_date ON loan (target_completion_date) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_active_loan_end_date ON loan (loan_end_date) WHERE status = 'ACTIVE';
@@ -0,0 +1,40 @@
+-- Closed loans (cancelled, or fully repaid) are moved here so the live loan table only holds the working set.
+-- Range partitions by start_date keep each archive index small and let old years be detached or dropped.
+CREATE TABLE IF NOT EXISTS loan_archive (
+    loan_id                INTEGER        NOT NULL,
+    start_date             DATE           NOT NULL,
+    loan_end_date          DATE           NOT NULL,
+    total_loan_amount      NUMERIC(19, 2) NOT NULL,
+    loan_interest_rate     NUMERIC(5, 2)  NOT NULL,
+    amount_received        NUMERIC(19, 2) NOT NULL,
+    target_completion_date DATE           NOT NULL,
+    pay_off_date           DATE,
+    daily_rate             NUMERIC(19, 2) NOT NULL,
+    product_id             VARCHAR(64)    NOT NULL,
+    customer_id            VARCHAR(64)    NOT NULL,
+    status                 VARCHAR(16)    NOT NULL,
+    version                BIGINT         NOT NULL,
+    archived_at            TIMESTAMPTZ    NOT NULL DEFAULT now(),
+    PRIMARY KEY (loan_id, start_date)
+) PARTITION BY RANGE (start_date);
+
+DO $$
+BEGIN
+    FOR year IN 2015..2035 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS loan_archive_%s PARTITION OF loan_archive '
+                       'FOR VALUES FROM (%L) TO (%L)', year, make_date(year, 1, 1), make_date(year + 1, 1, 1));
+    END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS loan_archive_default PARTITION OF loan_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_loan_archive_customer_id ON loan_archive (customer_id, loan_id);
+
+CREATE TABLE IF NOT EXISTS loan_repayment_archive (
+    payment_reference VARCHAR(64)    PRIMARY KEY,
+    loan_id           INTEGER        NOT NULL,
+    amount            NUMERIC(19, 2) NOT NULL,
+    payment_date      DATE           NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_repayment_archive_loan_id ON loan_repayment_archive (loan_id);
@@ -0,0 +1,3 @@
+-- Lets the archival job find its next batch without scanning the live table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_closed ON loan (loan_id)
+    WHERE status = 'CANCELLED' OR amount_received >= total_loan_amount;
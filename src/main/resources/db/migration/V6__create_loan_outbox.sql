@@ -0,0 +1,18 @@
+-- Change events written in the same transaction as the loan write they describe.
+-- id orders inserts, but ids commit out of order under concurrency; the relay therefore assigns position,
+-- a gap-free-in-commit-order sequence that consumers use as their offset.
+CREATE SEQUENCE IF NOT EXISTS loan_outbox_position_seq;
+
+CREATE TABLE IF NOT EXISTS loan_outbox (
+    id           BIGSERIAL   PRIMARY KEY,
+    loan_id      INTEGER     NOT NULL,
+    event_type   VARCHAR(16) NOT NULL,
+    loan_version BIGINT,
+    payload      TEXT,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    position     BIGINT      UNIQUE,
+    published_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_outbox_unpublished ON loan_outbox (id) WHERE position IS NULL;
+CREATE INDEX IF NOT EXISTS idx_loan_outbox_published_at ON loan_outbox (published_at);
@@ -0,0 +1,11 @@
+-- Responses to POST/PUT requests sent with an Idempotency-Key, shared by all instances.
+-- response_body stays NULL while the first request is in flight; fingerprint detects a key reused for a different request.
+CREATE TABLE IF NOT EXISTS loan_idempotency_key (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint     CHAR(64)     NOT NULL,
+    response_body   TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_idempotency_key_expires_at ON loan_idempotency_key (expires_at);
@@ -0,0 +1,12 @@
+-- Allowed loan status changes. Bulk transitions join against this table, so a loan whose current status has no
+-- row for the requested target is left unchanged and reported as skipped.
+CREATE TABLE IF NOT EXISTS loan_status_transition (
+    from_status VARCHAR(16) NOT NULL,
+    to_status   VARCHAR(16) NOT NULL,
+    PRIMARY KEY (from_status, to_status)
+);
+
+INSERT INTO loan_status_transition (from_status, to_status) VALUES
+    ('CREATED', 'ACTIVE'),
+    ('ACTIVE', 'CANCELLED')
+ON CONFLICT DO NOTHING;
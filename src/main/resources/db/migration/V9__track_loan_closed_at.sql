@@ -0,0 +1,26 @@
+-- When a loan was closed (cancelled, or fully repaid), so archival can honour the retention window from closure
+-- rather than from the start date. The trigger covers every write path, including set-based bulk updates.
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS closed_at TIMESTAMPTZ;
+ALTER TABLE loan_archive ADD COLUMN IF NOT EXISTS closed_at TIMESTAMPTZ;
+
+CREATE OR REPLACE FUNCTION loan_track_closed_at() RETURNS trigger AS $$
+BEGIN
+    IF NEW.status = 'CANCELLED' OR NEW.amount_received >= NEW.total_loan_amount THEN
+        -- Keeps the first closure time across later writes to an already closed loan
+        NEW.closed_at := COALESCE(NEW.closed_at, now());
+    ELSE
+        NEW.closed_at := NULL;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS loan_closed_at ON loan;
+CREATE TRIGGER loan_closed_at BEFORE INSERT OR UPDATE ON loan
+    FOR EACH ROW EXECUTE FUNCTION loan_track_closed_at();
+
+-- Existing closed loans have no recorded closure; repaid ones use their pay-off date, the rest start their
+-- retention window now
+UPDATE loan SET closed_at = COALESCE(
+        CASE WHEN amount_received >= total_loan_amount THEN pay_off_date::timestamptz END, now())
+    WHERE closed_at IS NULL AND (status = 'CANCELLED' OR amount_received >= total_loan_amount);
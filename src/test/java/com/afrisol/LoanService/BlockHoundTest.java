@@ -0,0 +1,41 @@
+package com.afrisol.LoanService;
+
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class BlockHoundTest {
+
+    @Test
+    void blockingCallOnParallelSchedulerFails() {
+        Mono<Long> blocking = Mono.delay(Duration.ofMillis(1))
+                .doOnNext(tick -> sleep());
+
+        StepVerifier.create(blocking)
+                .expectErrorMatches(e -> e instanceof BlockingOperationError || e.getCause() instanceof BlockingOperationError)
+                .verify();
+    }
+
+    @Test
+    void blockingCallOnBoundedElasticIsAllowed() {
+        Mono<Long> blocking = Mono.delay(Duration.ofMillis(1))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(tick -> sleep());
+
+        StepVerifier.create(blocking)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.afrisol.LoanService;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+// Known, bounded blocking that is acceptable on non-blocking threads; anything else fails the test that triggers it
+public class LoanBlockHoundIntegration implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder
+                // The async appender only enqueues (neverBlock), but the queue lock can be contended for an instant
+                .allowBlockingCallsInside("ch.qos.logback.core.AsyncAppenderBase", "put")
+                // Caffeine takes its eviction lock briefly while draining read/write buffers
+                .allowBlockingCallsInside("com.github.benmanes.caffeine.cache.BoundedLocalCache", "performCleanUp")
+                // Hibernate Validator loads constraint metadata and message bundles from the classpath on first use only;
+                // validating already-described beans is not exempt
+                .allowBlockingCallsInside("org.hibernate.validator.internal.metadata.BeanMetaDataManagerImpl", "getBeanMetaData")
+                .allowBlockingCallsInside("org.hibernate.validator.resourceloading.PlatformResourceBundleLocator",
+                        "getResourceBundle");
+    }
+}
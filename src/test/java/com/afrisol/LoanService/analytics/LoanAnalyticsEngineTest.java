@@ -0,0 +1,212 @@
+package com.afrisol.LoanService.analytics;
+
+import com.afrisol.LoanService.config.AnalyticsProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.PortfolioAnalyticsDTO;
+import com.afrisol.LoanService.dto.PortfolioTotalsDTO;
+import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepository;
+import com.afrisol.LoanService.service.LoanMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class LoanAnalyticsEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private LoanChangeFeed loanChangeFeed;
+
+    @Mock
+    private Clock clock;
+
+    private LoanAnalyticsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setToday(TODAY);
+        engine = new LoanAnalyticsEngine(loanRepository, loanOutbox, loanChangeFeed, new AnalyticsProperties(), clock);
+    }
+
+    @Test
+    void figuresAccrueInterestAndArrears() {
+        // 100 days at 36.5% on 1000 accrues 100; 10/day over 100 days expects 1000 but only 500 was paid
+        LoanFigures figures = LoanFigures.of(loan(1, "CUST1", "PROD1", Status.ACTIVE, 500), TODAY);
+
+        assertEquals(new BigDecimal("100.00"), figures.accruedInterest());
+        assertEquals(new BigDecimal("600.00"), figures.outstandingBalance());
+        assertEquals(50, figures.daysInArrears());
+    }
+
+    @Test
+    void cancelledLoansHaveNothingOutstanding() {
+        LoanFigures figures = LoanFigures.of(loan(1, "CUST1", "PROD1", Status.CANCELLED, 0), TODAY);
+
+        assertEquals(0, figures.outstandingBalance().signum());
+        assertEquals(0, figures.daysInArrears());
+    }
+
+    @Test
+    void totalsFollowLoanWrites() {
+        engine.loanSaved(loan(1, "CUST1", "PROD1", Status.ACTIVE, 500));
+        engine.loanSaved(loan(2, "CUST1", "PROD2", Status.ACTIVE, 1100));
+        engine.loanSaved(loan(3, "CUST2", "PROD1", Status.CREATED, 0));
+
+        PortfolioAnalyticsDTO portfolio = engine.getPortfolio();
+        assertEquals(3, portfolio.getTotal().getLoanCount());
+        assertEquals(new BigDecimal("3000"), portfolio.getTotal().getTotalPrincipal());
+        assertEquals(1, portfolio.getTotal().getLoansInArrears());
+        assertEquals(2, portfolio.getByStatus().get(Status.ACTIVE).getLoanCount());
+        assertEquals(2, engine.getCustomerTotals("CUST1").orElseThrow().getLoanCount());
+
+        engine.loanSaved(withVersion(loan(1, "CUST1", "PROD1", Status.ACTIVE, 1100), 2L));
+        engine.loanDeleted(3);
+
+        portfolio = engine.getPortfolio();
+        assertEquals(2, portfolio.getTotal().getLoanCount());
+        assertEquals(0, portfolio.getTotal().getLoansInArrears());
+        assertFalse(portfolio.getByStatus().containsKey(Status.CREATED));
+        assertTrue(engine.getCustomerTotals("CUST2").isEmpty());
+        assertEquals(1, engine.getProductTotals("PROD1").orElseThrow().getLoanCount());
+    }
+
+    @Test
+    void staleWriteDoesNotOverwriteNewerVersion() {
+        engine.loanSaved(withVersion(loan(1, "CUST1", "PROD1", Status.ACTIVE, 1100), 3L));
+        engine.loanSaved(withVersion(loan(1, "CUST1", "PROD1", Status.ACTIVE, 500), 2L));
+
+        assertEquals(new BigDecimal("1100"), engine.getPortfolio().getTotal().getTotalReceived());
+    }
+
+    @Test
+    void rebuildReplaysWritesMadeWhileStreaming() {
+        TestPublisher<Loan> table = TestPublisher.create();
+        when(loanRepository.streamLoans(any(LoanFilterDTO.class), anyInt())).thenReturn(table.flux());
+
+        StepVerifier.create(engine.rebuild())
+                .then(() -> table.next(loan(1, "CUST1", "PROD1", Status.ACTIVE, 500), loan(2, "CUST1", "PROD1", Status.ACTIVE, 0)))
+                .then(() -> engine.loanDeleted(2))
+                .then(() -> engine.loanSaved(loan(3, "CUST3", "PROD3", Status.ACTIVE, 0)))
+                .then(table::complete)
+                .verifyComplete();
+
+        PortfolioTotalsDTO total = engine.getPortfolio().getTotal();
+        assertEquals(2, total.getLoanCount());
+        assertTrue(engine.getCustomerTotals("CUST3").isPresent());
+        verify(loanRepository, times(1)).streamLoans(any(LoanFilterDTO.class), anyInt());
+    }
+
+    @Test
+    void dailyAccrualRebuildsFromTableAtNewDate() {
+        engine.loanSaved(loan(1, "CUST1", "PROD1", Status.ACTIVE, 500));
+        BigDecimal interestToday = engine.getPortfolio().getTotal().getAccruedInterest();
+        // Written through another instance, so only the table knows about it
+        when(loanRepository.streamLoans(any(LoanFilterDTO.class), anyInt())).thenReturn(Flux.just(
+                loan(1, "CUST1", "PROD1", Status.ACTIVE, 500), loan(2, "CUST2", "PROD1", Status.ACTIVE, 1100)));
+
+        setToday(TODAY.plusDays(10));
+        StepVerifier.create(engine.accrue()).verifyComplete();
+
+        PortfolioAnalyticsDTO portfolio = engine.getPortfolio();
+        assertEquals(TODAY.plusDays(10), portfolio.getAsOf());
+        assertEquals(2, portfolio.getTotal().getLoanCount());
+        assertEquals(new BigDecimal("220.00"), portfolio.getTotal().getAccruedInterest());
+        assertTrue(portfolio.getTotal().getAccruedInterest().compareTo(interestToday) > 0);
+    }
+
+    @Test
+    void followsCommittedChangesFromAllInstances() {
+        when(loanChangeFeed.stream(0L)).thenReturn(Flux.just(
+                event(1L, LoanEventType.CREATED, loan(1, "CUST1", "PROD1", Status.ACTIVE, 500)),
+                event(2L, LoanEventType.CREATED, loan(2, "CUST2", "PROD1", Status.ACTIVE, 0)),
+                event(3L, LoanEventType.ARCHIVED, loan(2, "CUST2", "PROD1", Status.ACTIVE, 0))));
+
+        StepVerifier.create(engine.follow(0L)).expectNextCount(3).verifyComplete();
+
+        assertEquals(1, engine.getPortfolio().getTotal().getLoanCount());
+        assertTrue(engine.getCustomerTotals("CUST2").isEmpty());
+    }
+
+    @Test
+    void resumesFeedAfterLastAppliedOffset() {
+        when(loanChangeFeed.stream(0L)).thenReturn(Flux.concat(
+                Flux.just(event(4L, LoanEventType.CREATED, loan(1, "CUST1", "PROD1", Status.ACTIVE, 500))),
+                Flux.error(new RuntimeException("connection reset"))));
+        when(loanChangeFeed.stream(4L)).thenReturn(Flux.just(
+                event(5L, LoanEventType.CREATED, loan(2, "CUST1", "PROD1", Status.ACTIVE, 0))));
+
+        StepVerifier.withVirtualTime(() -> engine.follow(0L))
+                .expectNextCount(1)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, engine.getPortfolio().getTotal().getLoanCount());
+        verify(loanChangeFeed, times(1)).stream(4L);
+    }
+
+    private void setToday(LocalDate date) {
+        when(clock.instant()).thenReturn(date.atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+
+    private static Loan loan(int loanId, String customerId, String productId, Status status, int received) {
+        return Loan.builder()
+                .loanId(loanId)
+                .startDate(TODAY.minusDays(100))
+                .loanEndDate(TODAY.plusDays(265))
+                .totalLoanAmount(BigDecimal.valueOf(1000))
+                .loanInterestRate(new BigDecimal("36.5"))
+                .amountReceived(BigDecimal.valueOf(received))
+                .targetCompletionDate(TODAY.plusDays(200))
+                .dailyRate(BigDecimal.TEN)
+                .productId(productId)
+                .customerId(customerId)
+                .status(status)
+                .build();
+    }
+
+    private static LoanChangeEventDTO event(long offset, LoanEventType type, Loan loan) {
+        return LoanChangeEventDTO.builder()
+                .offset(offset)
+                .loanId(loan.getLoanId())
+                .type(type)
+                .loan(type == LoanEventType.ARCHIVED || type == LoanEventType.DELETED ? null : LoanMapper.toResponse(loan))
+                .build();
+    }
+
+    private static Loan withVersion(Loan loan, Long version) {
+        loan.setVersion(version);
+        return loan;
+    }
+}
@@ -0,0 +1,64 @@
+package com.afrisol.LoanService.cache;
+
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.model.Status;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CaffeineLoanCacheTest {
+
+    private AsyncCache<Integer, LoanView> asyncCache;
+    private CaffeineLoanCache loanCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        asyncCache = Caffeine.newBuilder().maximumSize(100).recordStats().buildAsync();
+        loanCache = new CaffeineLoanCache(asyncCache);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void loadsOnceAndServesHits() {
+        StepVerifier.create(loanCache.get(1, this::load)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(loanCache.get(1, this::load)).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, asyncCache.synchronous().stats().hitCount());
+        assertEquals(1, asyncCache.synchronous().stats().missCount());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        StepVerifier.create(loanCache.get(1, this::load)).expectNextCount(1).verifyComplete();
+        loanCache.invalidate(1);
+        StepVerifier.create(loanCache.get(1, this::load)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void emptyLoadIsNotCached() {
+        StepVerifier.create(loanCache.get(2, id -> Mono.empty())).verifyComplete();
+
+        assertEquals(0, asyncCache.synchronous().estimatedSize());
+    }
+
+    private Mono<LoanView> load(Integer loanId) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            LocalDate today = LocalDate.now();
+            return new LoanView(loanId, today, today, 0L, 0, 0L, today, null, 0L, "PROD123", "CUST123",
+                    Status.ACTIVE, 0L);
+        });
+    }
+}
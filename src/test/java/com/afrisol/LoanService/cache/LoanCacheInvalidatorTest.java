@@ -0,0 +1,76 @@
+package com.afrisol.LoanService.cache;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+class LoanCacheInvalidatorTest {
+
+    @Mock
+    private LoanCache loanCache;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private LoanChangeFeed loanChangeFeed;
+
+    private LoanCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        invalidator = new LoanCacheInvalidator(loanCache, loanOutbox, loanChangeFeed);
+    }
+
+    @Test
+    void evictsLoansChangedByAnyInstance() {
+        when(loanChangeFeed.stream(0L)).thenReturn(Flux.just(
+                event(1L, 1, LoanEventType.CREATED),
+                event(2L, 1, LoanEventType.UPDATED),
+                event(3L, 2, LoanEventType.DELETED),
+                event(4L, 3, LoanEventType.ARCHIVED)));
+
+        StepVerifier.create(invalidator.follow(0L)).expectNextCount(4).verifyComplete();
+
+        verify(loanCache, times(1)).invalidate(1);
+        verify(loanCache, times(1)).invalidate(2);
+        verify(loanCache, times(1)).invalidate(3);
+    }
+
+    @Test
+    void resumesFeedAfterLastAppliedOffset() {
+        when(loanChangeFeed.stream(0L)).thenReturn(Flux.concat(
+                Flux.just(event(4L, 1, LoanEventType.UPDATED)),
+                Flux.error(new RuntimeException("connection reset"))));
+        when(loanChangeFeed.stream(4L)).thenReturn(Flux.just(event(5L, 2, LoanEventType.UPDATED)));
+
+        StepVerifier.withVirtualTime(() -> invalidator.follow(0L))
+                .expectNextCount(1)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(loanCache, times(1)).invalidate(2);
+        verify(loanChangeFeed, times(1)).stream(4L);
+    }
+
+    private static LoanChangeEventDTO event(long offset, int loanId, LoanEventType type) {
+        return LoanChangeEventDTO.builder()
+                .offset(offset)
+                .loanId(loanId)
+                .type(type)
+                .build();
+    }
+}
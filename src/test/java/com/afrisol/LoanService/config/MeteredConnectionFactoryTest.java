@@ -0,0 +1,56 @@
+package com.afrisol.LoanService.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class MeteredConnectionFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionFactory delegate;
+    private MeteredConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = mock(ConnectionFactory.class);
+        connectionFactory = new MeteredConnectionFactory(delegate, meterRegistry, "connectionFactory");
+    }
+
+    @Test
+    void recordsSuccessfulAcquisitions() {
+        Connection connection = mock(Connection.class);
+        doReturn(Mono.just(connection)).when(delegate).create();
+
+        StepVerifier.create(connectionFactory.create())
+                .expectNext(connection)
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.get("r2dbc.pool.acquire").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void recordsFailedAcquisitions() {
+        doReturn(Mono.error(new IllegalStateException("pool exhausted"))).when(delegate).create();
+
+        StepVerifier.create(connectionFactory.create())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, meterRegistry.get("r2dbc.pool.acquire").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void unwrapsToDelegate() {
+        assertSame(delegate, connectionFactory.unwrap());
+    }
+}
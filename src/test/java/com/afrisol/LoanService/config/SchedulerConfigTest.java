@@ -0,0 +1,43 @@
+package com.afrisol.LoanService.config;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchedulerConfigTest {
+
+    @Test
+    void boundedModeRunsOnNamedPlatformThreads() {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setThreadCap(2);
+        Scheduler scheduler = SchedulerConfig.createScheduler(properties);
+        try {
+            StepVerifier.create(Mono.fromCallable(Thread::currentThread).subscribeOn(scheduler))
+                    .assertNext(thread -> {
+                        assertTrue(thread.getName().startsWith("loan-blocking"));
+                        assertFalse(thread.isVirtual());
+                    })
+                    .verifyComplete();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void virtualModeRunsOnVirtualThreads() {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setMode(SchedulerProperties.Mode.VIRTUAL);
+        Scheduler scheduler = SchedulerConfig.createScheduler(properties);
+        try {
+            StepVerifier.create(Mono.fromCallable(Thread::currentThread).subscribeOn(scheduler))
+                    .assertNext(thread -> assertTrue(thread.isVirtual()))
+                    .verifyComplete();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.afrisol.LoanService.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaVersionVerifierTest {
+
+    @Test
+    void latestShippedVersionComesFromMigrationScripts() throws IOException {
+        MigrationVersion latest = SchemaVersionVerifier.latestShippedVersion("classpath:db/migration");
+
+        assertTrue(latest.isAtLeast("3"));
+    }
+
+    @Test
+    void matchingSchemaHasNoProblems() {
+        List<String> problems = SchemaVersionVerifier.verify(MigrationVersion.fromVersion("3"),
+                List.of("0", "1", "2", "3"), Set.of("idx_a", "idx_b"), List.of("idx_a", "idx_b"));
+
+        assertTrue(problems.isEmpty());
+    }
+
+    @Test
+    void outdatedSchemaAndMissingIndexesAreReported() {
+        List<String> problems = SchemaVersionVerifier.verify(MigrationVersion.fromVersion("3"),
+                List.of("1", "2"), Set.of("idx_a"), List.of("idx_a", "idx_b"));
+
+        assertEquals(2, problems.size());
+        assertTrue(problems.get(0).contains("schema version is 2"));
+        assertTrue(problems.get(1).contains("idx_b"));
+    }
+
+    @Test
+    void missingHistoryIsReported() {
+        List<String> problems = SchemaVersionVerifier.verify(MigrationVersion.fromVersion("3"),
+                List.of(), Set.of(), List.of());
+
+        assertEquals(List.of("schema version is unknown but 3 is required"), problems);
+    }
+}
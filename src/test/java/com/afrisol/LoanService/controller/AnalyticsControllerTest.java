@@ -0,0 +1,83 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.analytics.LoanAnalyticsEngine;
+import com.afrisol.LoanService.dto.PortfolioAnalyticsDTO;
+import com.afrisol.LoanService.dto.PortfolioTotalsDTO;
+import com.afrisol.LoanService.model.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+
+class AnalyticsControllerTest {
+
+    @Mock
+    private LoanAnalyticsEngine analyticsEngine;
+
+    @InjectMocks
+    private AnalyticsController analyticsController;
+
+    private WebTestClient webTestClient;
+
+    private PortfolioTotalsDTO totals;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(analyticsController).build();
+        totals = PortfolioTotalsDTO.builder()
+                .loanCount(2)
+                .totalPrincipal(BigDecimal.valueOf(2000))
+                .outstandingBalance(BigDecimal.valueOf(600))
+                .loansInArrears(1)
+                .build();
+    }
+
+    @Test
+    void getPortfolio() {
+        when(analyticsEngine.getPortfolio()).thenReturn(PortfolioAnalyticsDTO.builder()
+                .asOf(LocalDate.of(2024, 6, 1))
+                .total(totals)
+                .byStatus(Map.of(Status.ACTIVE, totals))
+                .build());
+
+        webTestClient.get()
+                .uri("/api/v1/analytics/portfolio")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total.loanCount").isEqualTo(2)
+                .jsonPath("$.byStatus.ACTIVE.loansInArrears").isEqualTo(1);
+    }
+
+    @Test
+    void getCustomerTotals() {
+        when(analyticsEngine.getCustomerTotals("CUST1")).thenReturn(Optional.of(totals));
+
+        webTestClient.get()
+                .uri("/api/v1/analytics/customers/CUST1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.outstandingBalance").isEqualTo(600);
+    }
+
+    @Test
+    void getUnknownProductTotals() {
+        when(analyticsEngine.getProductTotals("NOPE")).thenReturn(Optional.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/analytics/products/NOPE")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,83 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class CustomerLoanControllerTest {
+
+    @Mock
+    private LoanService loanService;
+
+    @InjectMocks
+    private CustomerLoanController customerLoanController;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(customerLoanController).build();
+    }
+
+    @Test
+    void getCustomerLoans() {
+        LoanResponseDTO loan = LoanResponseDTO.builder().loanId(1).customerId("CUST123").status(Status.ACTIVE).build();
+        when(loanService.getCustomerLoans(eq("CUST123"), isNull(), anyString())).thenReturn(Flux.just(loan, loan));
+
+        webTestClient.get()
+                .uri("/api/v1/customers/CUST123/loans")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LoanResponseDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getCustomerLoansByStatus() {
+        when(loanService.getCustomerLoans(eq("CUST123"), eq(Status.ACTIVE), anyString())).thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/customers/CUST123/loans?status=ACTIVE")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(loanService, times(1)).getCustomerLoans(eq("CUST123"), eq(Status.ACTIVE), anyString());
+    }
+
+    @Test
+    void getCustomerLoanSummary() {
+        CustomerLoanSummaryDTO summary = CustomerLoanSummaryDTO.builder()
+                .customerId("CUST123")
+                .loanCount(3)
+                .totalPrincipal(BigDecimal.valueOf(30000))
+                .totalReceived(BigDecimal.valueOf(5000))
+                .activeCount(2)
+                .build();
+        when(loanService.getCustomerLoanSummary(eq("CUST123"), anyString())).thenReturn(Mono.just(summary));
+
+        webTestClient.get()
+                .uri("/api/v1/customers/CUST123/loans/summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.loanCount").isEqualTo(3)
+                .jsonPath("$.activeCount").isEqualTo(2);
+    }
+}
@@ -0,0 +1,82 @@
+package com.afrisol.LoanService.controller;
+
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.dto.LoanChangesDTO;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.outbox.LoanChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class LoanChangesControllerTest {
+
+    @Mock
+    private LoanChangeFeed loanChangeFeed;
+
+    @InjectMocks
+    private LoanChangesController loanChangesController;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(loanChangesController).build();
+    }
+
+    @Test
+    void getChangesLongPolls() {
+        LoanChangesDTO changes = LoanChangesDTO.builder().changes(List.of(event(43))).nextOffset(43L).build();
+        when(loanChangeFeed.poll(eq(42L), isNull(), eq(Duration.ofSeconds(20)))).thenReturn(Mono.just(changes));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/changes?since=42&wait=20")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nextOffset").isEqualTo(43)
+                .jsonPath("$.changes[0].type").isEqualTo("UPDATED");
+    }
+
+    @Test
+    void streamChangesResumesFromLastEventId() {
+        when(loanChangeFeed.stream(7L)).thenReturn(Flux.just(event(8), event(9)));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/changes/stream?since=1")
+                .header("Last-Event-ID", "7")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<LoanChangeEventDTO>>() {
+                })
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(sse -> "8".equals(sse.id()) && "UPDATED".equals(sse.event()))
+                .expectNextMatches(sse -> "9".equals(sse.id()))
+                .verifyComplete();
+
+        verify(loanChangeFeed, times(1)).stream(7L);
+    }
+
+    private static LoanChangeEventDTO event(long offset) {
+        return LoanChangeEventDTO.builder().offset(offset).loanId(1).type(LoanEventType.UPDATED).build();
+    }
+}
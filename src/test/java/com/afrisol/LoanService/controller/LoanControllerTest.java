@@ -1,25 +1,49 @@
 package com.afrisol.LoanService.controller;
 
+import com.afrisol.LoanService.config.HttpCacheProperties;
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanPageDTO;
 import com.afrisol.LoanService.dto.LoanRequestDTO;
 import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.dto.StatusTransitionProgressDTO;
+import com.afrisol.LoanService.dto.StatusTransitionRequestDTO;
+import com.afrisol.LoanService.exception.GlobalExceptionHandler;
+import com.afrisol.LoanService.exception.LoanPreconditionFailedException;
+import com.afrisol.LoanService.external.Customer;
+import com.afrisol.LoanService.service.IdempotencyService;
+import com.afrisol.LoanService.service.LoanEnricher;
+import com.afrisol.LoanService.service.LoanExpansion;
 import com.afrisol.LoanService.service.LoanService;
 import com.afrisol.LoanService.model.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class LoanControllerTest {
@@ -27,12 +51,22 @@ class LoanControllerTest {
     @Mock
     private LoanService loanService;
 
+    @Mock
+    private LoanEnricher loanEnricher;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private HttpCacheProperties httpCacheProperties = new HttpCacheProperties();
+
     @InjectMocks
     private LoanController loanController;
 
     private WebTestClient webTestClient;
 
     private LoanResponseDTO sampleLoanResponse;
+    private LoanView sampleLoanView;
     private LoanRequestDTO sampleLoanRequest;
 
     @BeforeEach
@@ -57,6 +91,10 @@ class LoanControllerTest {
                 .status(Status.ACTIVE)
                 .build();
 
+        sampleLoanView = new LoanView(1, LocalDate.now(), LocalDate.now().plusDays(30), 1_000_000L, 550, 200_000L,
+                LocalDate.now().plusMonths(1), LocalDate.now().plusMonths(1), 1_000L, "PROD123", "CUST123",
+                Status.ACTIVE, 0L);
+
         // Sample LoanRequestDTO
         sampleLoanRequest = LoanRequestDTO.builder()
                 .startDate(LocalDate.now())
@@ -74,27 +112,123 @@ class LoanControllerTest {
     }
 
     @Test
-    void getAllLoans() {
-        when(loanService.getAllLoans(anyString())).thenReturn(Flux.just(sampleLoanResponse));
+    void getLoans() {
+        LoanPageDTO<LoanView> page = LoanPageDTO.<LoanView>builder()
+                .loans(List.of(sampleLoanView))
+                .nextCursor("next-token")
+                .changeVersion("7-0-0")
+                .build();
+        when(loanService.getLoans(any(LoanFilterDTO.class), isNull(), isNull(), anyString())).thenReturn(Mono.just(page));
 
         webTestClient.get()
                 .uri("/api/v1/loans")
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
-                .expectBodyList(LoanResponseDTO.class)
-                .hasSize(1)
-                .consumeWith(response -> {
-                    LoanResponseDTO loan = response.getResponseBody().get(0);
-                    assertEquals("PROD123", loan.getProductId());
-                });
+                .expectHeader().valueEquals("ETag", "\"loans-7-0-0\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private")
+                .expectBody()
+                .jsonPath("$.loans.length()").isEqualTo(1)
+                .jsonPath("$.loans[0].productId").isEqualTo("PROD123")
+                .jsonPath("$.loans[0].totalLoanAmount").isEqualTo(10000.00)
+                .jsonPath("$.nextCursor").isEqualTo("next-token");
+
+        verify(loanService, times(1)).getLoans(any(LoanFilterDTO.class), isNull(), isNull(), anyString());
+        verify(loanService, never()).getLoansChangeVersion(anyString());
+        verifyNoInteractions(loanEnricher);
+    }
+
+    @Test
+    void getLoansWithExpandEnrichesConvertedRows() {
+        LoanResponseDTO expanded = sampleLoanView.toResponse().toBuilder()
+                .customer(Customer.builder().customerId("CUST123").firstName("Ada").build())
+                .build();
+        LoanPageDTO<LoanView> page = LoanPageDTO.<LoanView>builder().loans(List.of(sampleLoanView)).changeVersion("7-0-0").build();
+        when(loanService.getLoans(any(LoanFilterDTO.class), isNull(), isNull(), anyString())).thenReturn(Mono.just(page));
+        when(loanEnricher.enrich(eq(List.of(sampleLoanView.toResponse())), eq(Set.of(LoanExpansion.CUSTOMER))))
+                .thenReturn(Mono.just(List.of(expanded)));
+
+        webTestClient.get()
+                .uri("/api/v1/loans?expand=customer")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Cache-Control", "no-store")
+                .expectBody()
+                .jsonPath("$.loans[0].customer.firstName").isEqualTo("Ada");
+    }
+
+    @Test
+    void getLoansNotModifiedSkipsPageRead() {
+        when(loanService.getLoansChangeVersion(anyString())).thenReturn(Mono.just("7-0-0"));
+
+        webTestClient.get()
+                .uri("/api/v1/loans")
+                .header("If-None-Match", "\"loans-7-0-0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"loans-7-0-0\"")
+                .expectBody().isEmpty();
+
+        verify(loanService, never()).getLoans(any(LoanFilterDTO.class), any(), any(), anyString());
+    }
+
+    @Test
+    void getLoansWithStaleETagReturnsPage() {
+        LoanPageDTO<LoanView> page = LoanPageDTO.<LoanView>builder().loans(List.of(sampleLoanView)).changeVersion("8-0-0").build();
+        when(loanService.getLoansChangeVersion(anyString())).thenReturn(Mono.just("8-0-0"));
+        when(loanService.getLoans(any(LoanFilterDTO.class), isNull(), isNull(), anyString())).thenReturn(Mono.just(page));
+
+        webTestClient.get()
+                .uri("/api/v1/loans")
+                .header("If-None-Match", "\"loans-7-0-0\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"loans-8-0-0\"")
+                .expectBody()
+                .jsonPath("$.loans.length()").isEqualTo(1)
+                .jsonPath("$.changeVersion").doesNotExist();
+    }
+
+    @Test
+    void getLoansWithFiltersAndCursor() {
+        LoanPageDTO<LoanView> page = LoanPageDTO.<LoanView>builder().loans(List.of(sampleLoanView)).build();
+        when(loanService.getLoans(any(LoanFilterDTO.class), eq("abc"), eq(20), anyString())).thenReturn(Mono.just(page));
+
+        webTestClient.get()
+                .uri("/api/v1/loans?status=ACTIVE&customerId=CUST123&startDateFrom=2024-01-01&cursor=abc&size=20")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(loanService, times(1)).getLoans(argThat(filter ->
+                filter.getStatus() == Status.ACTIVE
+                        && "CUST123".equals(filter.getCustomerId())
+                        && LocalDate.of(2024, 1, 1).equals(filter.getStartDateFrom())), eq("abc"), eq(20), anyString());
+    }
+
+    @Test
+    void exportLoansAsNdjson() {
+        when(loanService.exportLoans(any(LoanFilterDTO.class), anyString())).thenReturn(Flux.just(sampleLoanView, sampleLoanView));
 
-        verify(loanService, times(1)).getAllLoans(anyString());
+        webTestClient.get()
+                .uri("/api/v1/loans/export?status=ACTIVE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectHeader().valueEquals("Cache-Control", "no-store")
+                .returnResult(LoanResponseDTO.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(loanService, times(1)).exportLoans(argThat(filter -> filter.getStatus() == Status.ACTIVE), anyString());
     }
 
     @Test
     void getLoan() {
-        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
 
         webTestClient.get()
                 .uri("/api/v1/loans/1")
@@ -110,6 +244,90 @@ class LoanControllerTest {
         verify(loanService, times(1)).getLoan(eq(1), anyString());
     }
 
+    @Test
+    void getLoanWithExpand() {
+        LoanResponseDTO expanded = sampleLoanResponse.toBuilder()
+                .customer(Customer.builder().customerId("CUST123").firstName("Ada").build())
+                .build();
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
+        when(loanEnricher.enrich(eq(sampleLoanView.toResponse()), eq(Set.of(LoanExpansion.CUSTOMER)))).thenReturn(Mono.just(expanded));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1?expand=customer")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoanResponseDTO.class)
+                .consumeWith(response -> assertEquals("Ada", response.getResponseBody().getCustomer().getFirstName()));
+    }
+
+    @Test
+    void getLoanWithoutExpandSkipsEnrichment() {
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.customer").doesNotExist()
+                .jsonPath("$.totalLoanAmount").isEqualTo(10000.00)
+                .jsonPath("$.loanInterestRate").isEqualTo(5.50);
+
+        verifyNoInteractions(loanEnricher);
+    }
+
+    @Test
+    void getLoanReturnsVersionETag() {
+        LoanView loan = new LoanView(1, LocalDate.now(), LocalDate.now().plusDays(30), 1_000_000L, 550, 200_000L,
+                LocalDate.now().plusMonths(1), null, 1_000L, "PROD123", "CUST123", Status.ACTIVE, 2L);
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(loan));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"2\"");
+    }
+
+    @Test
+    void getLoanNotModified() {
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1")
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getLoanWithExpandNotModifiedSkipsEnrichment() {
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1?expand=customer")
+                .header("If-None-Match", "W/\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verifyNoInteractions(loanEnricher);
+    }
+
+    @Test
+    void getLoanUsesConfiguredMaxAge() {
+        httpCacheProperties.setLoanMaxAge(Duration.ofSeconds(30));
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(sampleLoanView));
+
+        webTestClient.get()
+                .uri("/api/v1/loans/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Cache-Control", "max-age=30, private");
+    }
+
     @Test
     void addLoan() {
         when(loanService.addLoan(any(LoanRequestDTO.class), anyString())).thenReturn(Mono.just(sampleLoanResponse));
@@ -127,11 +345,77 @@ class LoanControllerTest {
                 });
 
         verify(loanService, times(1)).addLoan(any(LoanRequestDTO.class), anyString());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void addLoanWithIdempotencyKeyRunsThroughIdempotencyService() {
+        when(loanService.addLoan(any(LoanRequestDTO.class), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+        when(idempotencyService.execute(eq("key-1"), eq("POST /loans"), any(LoanRequestDTO.class), eq(LoanResponseDTO.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<LoanResponseDTO>>>getArgument(4).get());
+
+        webTestClient.post()
+                .uri("/api/v1/loans")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(sampleLoanRequest)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(idempotencyService, times(1))
+                .execute(eq("key-1"), eq("POST /loans"), any(LoanRequestDTO.class), eq(LoanResponseDTO.class), any());
+        verify(loanService, times(1)).addLoan(any(LoanRequestDTO.class), anyString());
+    }
+
+    @Test
+    void addLoansFromNdjson() {
+        BulkLoanResultDTO summary = BulkLoanResultDTO.builder().accepted(2).rejected(0).items(List.of()).build();
+        when(loanService.addLoans(any(), anyString())).thenReturn(Mono.just(summary));
+
+        webTestClient.post()
+                .uri("/api/v1/loans/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(sampleLoanRequest, sampleLoanRequest), LoanRequestDTO.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkLoanResultDTO.class)
+                .consumeWith(response -> assertEquals(2, response.getResponseBody().getAccepted()));
+
+        verify(loanService, times(1)).addLoans(any(), anyString());
+    }
+
+    @Test
+    void transitionStatusStreamsProgressAsNdjson() {
+        StatusTransitionRequestDTO request = StatusTransitionRequestDTO.builder()
+                .targetStatus(Status.ACTIVE)
+                .filter(LoanFilterDTO.builder().status(Status.CREATED).startDateTo(LocalDate.now()).build())
+                .build();
+        when(loanService.transitionStatus(any(StatusTransitionRequestDTO.class), anyString())).thenReturn(Flux.just(
+                StatusTransitionProgressDTO.builder().chunk(1).transitioned(2).totalTransitioned(2).lastLoanId(7).build(),
+                StatusTransitionProgressDTO.builder().chunk(1).totalTransitioned(2).lastLoanId(7).complete(true).build()));
+
+        webTestClient.post()
+                .uri("/api/v1/loans/status-transitions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(StatusTransitionProgressDTO.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(progress -> progress.getTransitioned() == 2 && !progress.isComplete())
+                .expectNextMatches(StatusTransitionProgressDTO::isComplete)
+                .verifyComplete();
+
+        verify(loanService, times(1)).transitionStatus(argThat(sent -> sent.getTargetStatus() == Status.ACTIVE
+                && sent.getFilter().getStatus() == Status.CREATED), anyString());
     }
 
     @Test
     void updateLoan() {
-        when(loanService.updateLoan(any(LoanRequestDTO.class), eq(1), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+        when(loanService.updateLoan(any(LoanRequestDTO.class), eq(1), isNull(), anyString())).thenReturn(Mono.just(sampleLoanResponse));
 
         webTestClient.put()
                 .uri("/api/v1/loans/1")
@@ -145,7 +429,105 @@ class LoanControllerTest {
                     assertEquals("PROD123", loan.getProductId());
                 });
 
-        verify(loanService, times(1)).updateLoan(any(LoanRequestDTO.class), eq(1), anyString());
+        verify(loanService, times(1)).updateLoan(any(LoanRequestDTO.class), eq(1), isNull(), anyString());
+    }
+
+    @Test
+    void updateLoanWithIfMatchReturnsNewETag() {
+        sampleLoanResponse.setVersion(4L);
+        when(loanService.updateLoan(any(LoanRequestDTO.class), eq(1), eq(List.of(3L)), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+
+        webTestClient.put()
+                .uri("/api/v1/loans/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(sampleLoanRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"4\"");
+
+        verify(loanService, times(1)).updateLoan(any(LoanRequestDTO.class), eq(1), eq(List.of(3L)), anyString());
+    }
+
+    @Test
+    void updateLoanMatchesAnyListedETag() {
+        when(loanService.updateLoan(any(LoanRequestDTO.class), eq(1), eq(List.of(3L, 4L)), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+
+        webTestClient.put()
+                .uri("/api/v1/loans/1")
+                .header("If-Match", "\"3\", \"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(sampleLoanRequest)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void updateLoanWithUnmatchedIfMatchReturnsPreconditionFailed() {
+        WebTestClient client = WebTestClient.bindToController(loanController)
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+        when(loanService.updateLoan(any(LoanRequestDTO.class), eq(1), eq(List.of()), anyString()))
+                .thenReturn(Mono.error(new LoanPreconditionFailedException("Loan 1 does not match If-Match")));
+
+        client.put()
+                .uri("/api/v1/loans/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(sampleLoanRequest)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void mergeLoan() {
+        LoanRequestDTO patch = LoanRequestDTO.builder().amountReceived(BigDecimal.valueOf(2500)).build();
+        when(loanService.mergeLoan(any(LoanRequestDTO.class), eq(1), isNull(), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+
+        webTestClient.patch()
+                .uri("/api/v1/loans/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(loanService, times(1)).mergeLoan(argThat(dto -> BigDecimal.valueOf(2500).equals(dto.getAmountReceived())), eq(1), isNull(), anyString());
+    }
+
+    @Test
+    void postRepayment() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-1")
+                .amount(BigDecimal.valueOf(500))
+                .build();
+        when(loanService.postRepayment(eq(1), any(RepaymentRequestDTO.class), anyString())).thenReturn(Mono.just(sampleLoanResponse));
+
+        webTestClient.post()
+                .uri("/api/v1/loans/1/repayments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(repayment)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(loanService, times(1)).postRepayment(eq(1),
+                argThat(dto -> "PAY-1".equals(dto.getPaymentReference())), anyString());
+    }
+
+    @Test
+    void postRepaymentRejectsSubCentAmount() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-1")
+                .amount(new BigDecimal("10.005"))
+                .build();
+
+        webTestClient.post()
+                .uri("/api/v1/loans/1/repayments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(repayment)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(loanService);
     }
 
     @Test
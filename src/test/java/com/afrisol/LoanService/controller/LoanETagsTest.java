@@ -0,0 +1,38 @@
+package com.afrisol.LoanService.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoanETagsTest {
+
+    @Test
+    void absentOrWildcardIfMatchIsUnconditional() {
+        assertNull(LoanETags.parseIfMatch(null));
+        assertNull(LoanETags.parseIfMatch(" "));
+        assertNull(LoanETags.parseIfMatch("*"));
+    }
+
+    @Test
+    void parsesEntityTagList() {
+        assertEquals(List.of(3L), LoanETags.parseIfMatch("\"3\""));
+        assertEquals(List.of(3L, 4L), LoanETags.parseIfMatch("\"3\", \"4\""));
+        assertEquals(List.of(3L, 4L), LoanETags.parseIfMatch("\"3\",\"4\""));
+    }
+
+    @Test
+    void weakAndForeignTagsNeverMatch() {
+        assertEquals(List.of(), LoanETags.parseIfMatch("W/\"3\""));
+        assertEquals(List.of(4L), LoanETags.parseIfMatch("W/\"3\", \"4\", \"loans-1-0-0\""));
+    }
+
+    @Test
+    void rejectsMalformedHeader() {
+        assertThrows(IllegalArgumentException.class, () -> LoanETags.parseIfMatch("3"));
+        assertThrows(IllegalArgumentException.class, () -> LoanETags.parseIfMatch("\"3"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.afrisol.LoanService.dto;
+
+import com.afrisol.LoanService.model.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoanViewSerializerTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Test
+    void writesTheSameJsonAsTheResponseDto() throws Exception {
+        LoanView view = new LoanView(184467, LocalDate.of(2024, 1, 5), LocalDate.of(2025, 1, 5), 125_000_00L, 12_50,
+                4250_75L, LocalDate.of(2024, 11, 1), null, 375_00L, "SOLAR-HOME-200W", "CUST-000184467",
+                Status.ACTIVE, 7L);
+
+        assertEquals(objectMapper.writeValueAsString(view.toResponse()), objectMapper.writeValueAsString(view));
+    }
+
+    @Test
+    void writesNegativeAmountsAndDistantDates() throws Exception {
+        LoanView view = new LoanView(1, LocalDate.of(1999, 12, 31), LocalDate.of(10000, 1, 1), -5L, 0, 0L,
+                LocalDate.of(2000, 2, 29), LocalDate.of(2000, 3, 1), 1L, "PROD123", "CUST123", Status.CANCELLED, 0L);
+
+        assertEquals(objectMapper.writeValueAsString(view.toResponse()), objectMapper.writeValueAsString(view));
+    }
+}
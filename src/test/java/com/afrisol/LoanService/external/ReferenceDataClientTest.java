@@ -0,0 +1,153 @@
+package com.afrisol.LoanService.external;
+
+import com.afrisol.LoanService.config.ExternalServiceProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceDataClientTest {
+
+    private MockWebServer server;
+    private ExternalServiceProperties.Client properties;
+    private CircuitBreaker circuitBreaker;
+    private ReferenceDataClient<Customer> client;
+
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private volatile Duration responseDelay = Duration.ZERO;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (failing.get()) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                String body = Arrays.stream(request.getRequestUrl().queryParameter("ids").split(","))
+                        .map(id -> "{\"customerId\":\"" + id + "\",\"firstName\":\"Name " + id + "\"}")
+                        .collect(Collectors.joining(",", "[", "]"));
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBodyDelay(responseDelay.toMillis(), TimeUnit.MILLISECONDS)
+                        .setBody(body);
+            }
+        });
+        server.start();
+
+        properties = new ExternalServiceProperties.Client();
+        properties.setBaseUrl("http://" + server.getHostName() + ":" + server.getPort());
+        properties.setBatchPath("/api/v1/customers");
+        properties.setBatchSize(100);
+        properties.setTimeout(Duration.ofMillis(500));
+        circuitBreaker = CircuitBreaker.of("customers", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        client = new ReferenceDataClient<>(WebClient.create(properties.getBaseUrl()), properties, Customer.class,
+                Customer::getCustomerId, Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(1)).buildAsync(), circuitBreaker);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void getAllCoalescesDistinctIdsIntoBatches() {
+        List<String> ids = IntStream.range(0, 500).mapToObj(i -> "CUST" + (i % 250)).toList();
+
+        StepVerifier.create(client.getAll(ids))
+                .assertNext(customers -> {
+                    assertEquals(250, customers.size());
+                    assertEquals("Name CUST42", customers.get("CUST42").getFirstName());
+                })
+                .verifyComplete();
+
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void getAllOnlyFetchesIdsMissingFromCache() throws InterruptedException {
+        StepVerifier.create(client.getAll(List.of("CUST1", "CUST2"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(client.getAll(List.of("CUST1", "CUST2", "CUST3")))
+                .assertNext(customers -> assertEquals(3, customers.size()))
+                .verifyComplete();
+
+        assertEquals(2, server.getRequestCount());
+        server.takeRequest();
+        assertEquals("CUST3", server.takeRequest().getRequestUrl().queryParameter("ids"));
+    }
+
+    @Test
+    void concurrentLookupsShareInFlightRequest() {
+        responseDelay = Duration.ofMillis(200);
+        List<String> ids = List.of("CUST1", "CUST2");
+
+        StepVerifier.create(Mono.zip(client.getAll(ids), client.getAll(ids)))
+                .assertNext(results -> assertEquals(results.getT1().keySet(), results.getT2().keySet()))
+                .verifyComplete();
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void failedLookupIsEmptyAndNotCached() {
+        failing.set(true);
+        StepVerifier.create(client.getAll(List.of("CUST1")))
+                .assertNext(customers -> assertTrue(customers.isEmpty()))
+                .verifyComplete();
+
+        failing.set(false);
+        StepVerifier.create(client.getAll(List.of("CUST1")))
+                .assertNext(customers -> assertEquals(1, customers.size()))
+                .verifyComplete();
+    }
+
+    @Test
+    void slowLookupTimesOut() {
+        responseDelay = Duration.ofSeconds(2);
+
+        StepVerifier.create(client.getAll(List.of("CUST1")))
+                .assertNext(customers -> assertTrue(customers.isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void openCircuitStopsCallingDownstream() {
+        failing.set(true);
+        StepVerifier.create(client.getAll(List.of("CUST1"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(client.getAll(List.of("CUST2"))).expectNextCount(1).verifyComplete();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        StepVerifier.create(client.getAll(List.of("CUST3")))
+                .assertNext(customers -> assertTrue(customers.isEmpty()))
+                .verifyComplete();
+
+        assertEquals(2, server.getRequestCount());
+    }
+}
@@ -0,0 +1,156 @@
+package com.afrisol.LoanService.loadtest;
+
+import com.afrisol.LoanService.dto.BulkLoanItemResultDTO;
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.LoanRequestDTO;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.util.RequestIds;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mixed workload against the full stack on an embedded Postgres; run with -Pload-test, tune via -Dloadtest.*
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoanServiceLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20000);
+    private static final int SEED_LOANS = Integer.getInteger("loadtest.seedLoans", 5000);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+        registry.add("spring.flyway.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.flyway.user", () -> "postgres");
+        registry.add("spring.flyway.password", () -> "postgres");
+        // The load test measures the service itself, so per-client limits and shedding must not reject its traffic
+        registry.add("loan.rate-limit.enabled", () -> "false");
+        registry.add("loan.rate-limit.shedding.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void mixedWorkload() {
+        WebClient client = WebClient.builder().baseUrl("http://localhost:" + port + "/api/v1/loans").build();
+        List<Integer> loanIds = seed(client);
+
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String endpoint : List.of("GET /loans/{id}", "GET /loans", "POST /loans", "POST /repayments", "PUT /loans/{id}")) {
+            recorders.put(endpoint, new LatencyRecorder(endpoint));
+        }
+
+        long start = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> execute(client, loanIds, recorders), CONCURRENCY)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        log.info("Load test: {} requests at concurrency {} in {} ms ({} req/s)", REQUESTS, CONCURRENCY,
+                elapsed / 1_000_000, String.format("%.1f", REQUESTS / (elapsed / 1_000_000_000.0)));
+        recorders.values().forEach(recorder -> log.info(recorder.report(elapsed)));
+
+        recorders.values().forEach(recorder -> assertTrue(recorder.errorRate() <= MAX_ERROR_RATE,
+                () -> "Error rate above threshold: " + recorder.report(elapsed)));
+    }
+
+    private List<Integer> seed(WebClient client) {
+        BulkLoanResultDTO result = client.post()
+                .uri("/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.range(0, SEED_LOANS).map(i -> loanRequest()), LoanRequestDTO.class)
+                .retrieve()
+                .bodyToMono(BulkLoanResultDTO.class)
+                .block();
+        return Objects.requireNonNull(result).getItems().stream()
+                .map(BulkLoanItemResultDTO::getLoanId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Mono<Void> execute(WebClient client, List<Integer> loanIds, Map<String, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer loanId = loanIds.get(random.nextInt(loanIds.size()));
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return timed(recorders.get("GET /loans/{id}"), client.get().uri("/{loanId}", loanId));
+        }
+        if (roll < 70) {
+            return timed(recorders.get("GET /loans"), client.get().uri("?size=50&status=ACTIVE"));
+        }
+        if (roll < 80) {
+            return timed(recorders.get("POST /loans"), client.post().uri("").bodyValue(loanRequest()));
+        }
+        if (roll < 95) {
+            RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                    .paymentReference(RequestIds.next())
+                    .amount(BigDecimal.TEN)
+                    .build();
+            return timed(recorders.get("POST /repayments"), client.post().uri("/{loanId}/repayments", loanId).bodyValue(repayment));
+        }
+        return timed(recorders.get("PUT /loans/{id}"), client.put().uri("/{loanId}", loanId).bodyValue(loanRequest()));
+    }
+
+    private Mono<Void> timed(LatencyRecorder recorder, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                    .onErrorReturn(false)
+                    .doOnNext(success -> recorder.record(System.nanoTime() - start, success))
+                    .then();
+        });
+    }
+
+    private static LoanRequestDTO loanRequest() {
+        return LoanRequestDTO.builder()
+                .startDate(LocalDate.now())
+                .loanEndDate(LocalDate.now().plusDays(365))
+                .totalLoanAmount(BigDecimal.valueOf(120000))
+                .loanInterestRate(BigDecimal.valueOf(12.5))
+                .amountReceived(BigDecimal.ZERO)
+                .targetCompletionDate(LocalDate.now().plusDays(300))
+                .dailyRate(BigDecimal.valueOf(400))
+                .productId("SOLAR-" + ThreadLocalRandom.current().nextInt(20))
+                .customerId("CUST-" + ThreadLocalRandom.current().nextInt(2000))
+                .status(Status.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.afrisol.LoanService.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.afrisol.LoanService.util.RequestIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestSamplingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final Logger serviceLogger = loggerContext.getLogger("com.afrisol.LoanService.service.LoanServiceImpl");
+    private final RequestSamplingTurboFilter filter = new RequestSamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.addLoggerPrefix("com.afrisol.LoanService.service.LoanServiceImpl");
+        filter.setSampleRate(0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove(RequestIds.KEY);
+    }
+
+    @Test
+    void keepsRoughlyTheConfiguredShareOfRequests() {
+        int kept = 0;
+        for (int i = 0; i < 10000; i++) {
+            MDC.put(RequestIds.KEY, RequestIds.next());
+            if (filter.decide(null, serviceLogger, Level.INFO, "msg", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 800 && kept < 1200, "kept " + kept);
+    }
+
+    @Test
+    void decisionIsStablePerRequest() {
+        MDC.put(RequestIds.KEY, "fixed-request");
+        FilterReply first = filter.decide(null, serviceLogger, Level.INFO, "first", null, null);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, filter.decide(null, serviceLogger, Level.INFO, "next", null, null));
+        }
+    }
+
+    @Test
+    void warningsOtherLoggersAndUnscopedLinesAlwaysPass() {
+        filter.setSampleRate(0);
+        MDC.put(RequestIds.KEY, "any-request");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.WARN, "msg", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, loggerContext.getLogger("org.flywaydb"), Level.INFO, "msg", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, serviceLogger, Level.INFO, "msg", null, null));
+        MDC.remove(RequestIds.KEY);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.INFO, "msg", null, null));
+    }
+}
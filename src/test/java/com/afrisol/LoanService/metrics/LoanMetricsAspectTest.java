@@ -0,0 +1,79 @@
+package com.afrisol.LoanService.metrics;
+
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.exception.LoanNotFoundException;
+import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.service.LoanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoanMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoanService loanService;
+    private LoanService timedLoanService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loanService = mock(LoanService.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(loanService);
+        proxyFactory.addAspect(new LoanMetricsAspect(meterRegistry));
+        timedLoanService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void timesSuccessfulMonoOperations() {
+        when(loanService.getLoan(eq(1), anyString())).thenReturn(Mono.just(view(1)));
+
+        StepVerifier.create(timedLoanService.getLoan(1, "req-123")).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, meterRegistry.get(LoanMetricsAspect.SERVICE_TIMER)
+                .tag("operation", "getLoan")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void tagsFailuresWithExceptionType() {
+        when(loanService.getLoan(eq(2), anyString())).thenReturn(Mono.error(new LoanNotFoundException("missing")));
+
+        StepVerifier.create(timedLoanService.getLoan(2, "req-123")).expectError().verify();
+
+        assertEquals(1, meterRegistry.get(LoanMetricsAspect.SERVICE_TIMER)
+                .tag("outcome", "error")
+                .tag("exception", "LoanNotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    void timesFluxOperationsUntilCompletion() {
+        when(loanService.exportLoans(any(LoanFilterDTO.class), anyString())).thenReturn(Flux.just(view(1), view(2)));
+
+        StepVerifier.create(timedLoanService.exportLoans(new LoanFilterDTO(), "req-123")).expectNextCount(2).verifyComplete();
+
+        assertEquals(1, meterRegistry.get(LoanMetricsAspect.SERVICE_TIMER)
+                .tag("operation", "exportLoans")
+                .timer().count());
+    }
+
+    private static LoanView view(int loanId) {
+        LocalDate today = LocalDate.now();
+        return new LoanView(loanId, today, today, 0L, 0, 0L, today, null, 0L, "PROD123", "CUST123", Status.ACTIVE, 0L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.afrisol.LoanService.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactorSchedulerMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReactorSchedulerMetrics schedulerMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        schedulerMetrics = new ReactorSchedulerMetrics(meterRegistry);
+        schedulerMetrics.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulerMetrics.destroy();
+    }
+
+    @Test
+    void executorsOfOneSchedulerShareOneSeriesPerMeter() {
+        Scheduler scheduler = Schedulers.newParallel("metrics-test-a", 3);
+        try {
+            List<Meter.Id> active = meters("metrics-test-a").stream()
+                    .filter(id -> id.getName().equals("reactor.executor.active"))
+                    .toList();
+
+            assertEquals(1, active.size());
+            assertEquals(List.of("scheduler"), active.get(0).getTags().stream().map(Tag::getKey).toList());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void tasksAreTimedAcrossExecutorsAndShutDownExecutorsLeaveTheGauges() {
+        Scheduler scheduler = Schedulers.newParallel("metrics-test-b", 2);
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(() -> { });
+        }
+
+        scheduler.disposeGracefully().block(Duration.ofSeconds(5));
+
+        String name = meters("metrics-test-b").get(0).getTag("scheduler");
+        assertEquals(4, meterRegistry.get("reactor.executor").tag("scheduler", name).timer().count());
+        assertEquals(0, meterRegistry.get("reactor.executor.pool.size").tag("scheduler", name).gauge().value());
+        assertTrue(meters("metrics-test-b").stream().allMatch(id -> id.getTag("executor") == null));
+    }
+
+    private List<Meter.Id> meters(String schedulerName) {
+        return meterRegistry.getMeters().stream()
+                .map(Meter::getId)
+                .filter(id -> id.getTag("scheduler") != null && id.getTag("scheduler").contains(schedulerName))
+                .toList();
+    }
+}
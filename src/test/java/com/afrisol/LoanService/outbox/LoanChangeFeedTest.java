@@ -0,0 +1,122 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.config.OutboxProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.model.LoanEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class LoanChangeFeedTest {
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private OutboxRelay outboxRelay;
+
+    @Spy
+    private OutboxProperties outboxProperties = new OutboxProperties();
+
+    @InjectMocks
+    private LoanChangeFeed loanChangeFeed;
+
+    private final Sinks.Many<Long> positions = Sinks.many().replay().latest();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxProperties.setFeedRecheckInterval(Duration.ofHours(1));
+        when(outboxRelay.positions()).thenReturn(positions.asFlux());
+    }
+
+    @Test
+    void pollWithoutWaitReturnsTheCurrentPage() {
+        when(loanOutbox.readAfter(5L, 500)).thenReturn(Flux.just(event(6), event(7)));
+
+        StepVerifier.create(loanChangeFeed.poll(5, null, null))
+                .assertNext(changes -> {
+                    assertEquals(2, changes.getChanges().size());
+                    assertEquals(7L, changes.getNextOffset());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void pollCapsTheLimit() {
+        when(loanOutbox.readAfter(0L, 500)).thenReturn(Flux.empty());
+
+        StepVerifier.create(loanChangeFeed.poll(0, 10_000, Duration.ZERO))
+                .assertNext(changes -> assertEquals(0L, changes.getNextOffset()))
+                .verifyComplete();
+
+        verify(loanOutbox).readAfter(0L, 500);
+    }
+
+    @Test
+    void pollWaitsForTheRelayToAdvance() {
+        when(loanOutbox.readAfter(5L, 500))
+                .thenReturn(Flux.empty())
+                .thenReturn(Flux.just(event(6)));
+
+        StepVerifier.create(loanChangeFeed.poll(5, null, Duration.ofSeconds(10)))
+                .then(() -> positions.tryEmitNext(6L))
+                .assertNext(changes -> assertEquals(6L, changes.getNextOffset()))
+                .verifyComplete();
+
+        verify(loanOutbox, times(2)).readAfter(5L, 500);
+    }
+
+    @Test
+    void pollReturnsAnEmptyPageWhenTheWaitRunsOut() {
+        outboxProperties.setFeedRecheckInterval(Duration.ofSeconds(1));
+        when(loanOutbox.readAfter(anyLong(), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.withVirtualTime(() -> loanChangeFeed.poll(5, null, Duration.ofSeconds(3)))
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(changes -> {
+                    assertTrue(changes.getChanges().isEmpty());
+                    assertEquals(5L, changes.getNextOffset());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void pollRejectsNegativeOffset() {
+        StepVerifier.create(loanChangeFeed.poll(-1, null, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void streamDrainsPagesFromTheCursor() {
+        outboxProperties.setFeedLimit(2);
+        when(loanOutbox.readAfter(0L, 2)).thenReturn(Flux.just(event(1), event(2)));
+        when(loanOutbox.readAfter(2L, 2)).thenReturn(Flux.just(event(3)));
+
+        StepVerifier.create(loanChangeFeed.stream(0))
+                .expectNextMatches(event -> event.getOffset() == 1L)
+                .expectNextMatches(event -> event.getOffset() == 2L)
+                .expectNextMatches(event -> event.getOffset() == 3L)
+                .thenCancel()
+                .verify();
+    }
+
+    private static LoanChangeEventDTO event(long offset) {
+        return LoanChangeEventDTO.builder().offset(offset).loanId((int) offset).type(LoanEventType.UPDATED).build();
+    }
+}
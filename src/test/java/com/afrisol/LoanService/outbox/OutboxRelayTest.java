@@ -0,0 +1,95 @@
+package com.afrisol.LoanService.outbox;
+
+import com.afrisol.LoanService.config.OutboxProperties;
+import com.afrisol.LoanService.dto.LoanChangeEventDTO;
+import com.afrisol.LoanService.model.LoanEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private LoanEventPublisher publisher;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private OutboxProperties outboxProperties = new OutboxProperties();
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxProperties.setRelayBatchSize(2);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(publisher.publish(anyList())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void drainRelaysBatchesUntilOneComesBackShort() {
+        when(loanOutbox.claimBatch(2))
+                .thenReturn(Mono.just(List.of(event(1), event(2))))
+                .thenReturn(Mono.just(List.of(event(3))));
+
+        StepVerifier.create(outboxRelay.drain())
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(publisher, times(2)).publish(anyList());
+        verify(transactionalOperator, times(2)).transactional(any(Mono.class));
+        StepVerifier.create(outboxRelay.positions().take(1))
+                .expectNext(3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void emptyOutboxPublishesNothing() {
+        when(loanOutbox.claimBatch(2)).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(outboxRelay.drain())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(publisher, never()).publish(anyList());
+    }
+
+    @Test
+    void publishFailureFailsTheBatchWithoutAdvancingPositions() {
+        when(loanOutbox.claimBatch(2)).thenReturn(Mono.just(List.of(event(1))));
+        when(publisher.publish(anyList())).thenReturn(Mono.error(new RuntimeException("broker down")));
+
+        StepVerifier.create(outboxRelay.drain())
+                .expectErrorMessage("broker down")
+                .verify();
+
+        StepVerifier.create(outboxRelay.positions())
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    private static LoanChangeEventDTO event(long offset) {
+        return LoanChangeEventDTO.builder().offset(offset).loanId((int) offset).type(LoanEventType.UPDATED).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.afrisol.LoanService.routing;
+
+import com.afrisol.LoanService.config.ConnectionPoolConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class ReadRoutingConnectionFactoryTest {
+
+    private ConnectionFactory primary;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReadRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(ConnectionFactory.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        ConnectionFactory replicaFactory = mock(ConnectionFactory.class);
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(replicaConnection)).when(replicaFactory).create();
+        ReplicaConnectionFactory.Replica replica = new ReplicaConnectionFactory.Replica("replica-0", replicaFactory);
+        replica.update(0, Duration.ofSeconds(10));
+        routing = new ReadRoutingConnectionFactory(primary,
+                new ReplicaConnectionFactory(List.of(replica), primary, Duration.ofSeconds(10), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void routesToThePrimaryByDefault() {
+        StepVerifier.create(Mono.from(routing.create())).expectNext(primaryConnection).verifyComplete();
+    }
+
+    @Test
+    void routesReplicaReadsToTheReplicas() {
+        StepVerifier.create(Mono.from(routing.create()).contextWrite(DatabaseTarget::preferReplica))
+                .expectNext(replicaConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void strongReadsStayOnThePrimary() {
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(DatabaseTarget::preferReplica)
+                        .contextWrite(context -> context.put(DatabaseTarget.CONTEXT_KEY, DatabaseTarget.PRIMARY)))
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void unwrapsToThePrimary() {
+        assertSame(primary, routing.unwrap());
+        assertNull(ConnectionPoolConfig.findPool(routing));
+    }
+}
@@ -0,0 +1,106 @@
+package com.afrisol.LoanService.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class ReplicaConnectionFactoryTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(10);
+
+    private SimpleMeterRegistry meterRegistry;
+    private Connection primaryConnection;
+    private Connection firstConnection;
+    private Connection secondConnection;
+    private ConnectionFactory firstFactory;
+    private ReplicaConnectionFactory.Replica first;
+    private ReplicaConnectionFactory.Replica second;
+    private ReplicaConnectionFactory replicas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primaryConnection = mock(Connection.class);
+        firstConnection = mock(Connection.class);
+        secondConnection = mock(Connection.class);
+        ConnectionFactory primary = mock(ConnectionFactory.class);
+        firstFactory = mock(ConnectionFactory.class);
+        ConnectionFactory secondFactory = mock(ConnectionFactory.class);
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(firstConnection)).when(firstFactory).create();
+        doReturn(Mono.just(secondConnection)).when(secondFactory).create();
+        first = new ReplicaConnectionFactory.Replica("replica-0", firstFactory);
+        second = new ReplicaConnectionFactory.Replica("replica-1", secondFactory);
+        replicas = new ReplicaConnectionFactory(List.of(first, second), primary, MAX_LAG, meterRegistry);
+    }
+
+    @Test
+    void readsFromThePrimaryUntilAReplicaPassesAHealthCheck() {
+        StepVerifier.create(replicas.create()).expectNext(primaryConnection).verifyComplete();
+
+        assertEquals(1, meterRegistry.get("loan.replica.fallback").counter().count());
+    }
+
+    @Test
+    void spreadsConnectionsOverHealthyReplicas() {
+        first.update(0, MAX_LAG);
+        second.update(0.5, MAX_LAG);
+
+        StepVerifier.create(replicas.create()).expectNext(firstConnection).verifyComplete();
+        StepVerifier.create(replicas.create()).expectNext(secondConnection).verifyComplete();
+        StepVerifier.create(replicas.create()).expectNext(firstConnection).verifyComplete();
+    }
+
+    @Test
+    void laggingReplicaLeavesRotation() {
+        first.update(30, MAX_LAG);
+        second.update(0, MAX_LAG);
+
+        StepVerifier.create(replicas.create()).expectNext(secondConnection).verifyComplete();
+        StepVerifier.create(replicas.create()).expectNext(secondConnection).verifyComplete();
+        assertEquals(30, meterRegistry.get("loan.replica.lag").tag("name", "replica-0").gauge().value());
+    }
+
+    @Test
+    void replicaWithoutStreamingReceiverLeavesRotation() {
+        first.update(0, MAX_LAG);
+        first.disconnected();
+
+        StepVerifier.create(replicas.create()).expectNext(primaryConnection).verifyComplete();
+        assertFalse(first.isHealthy());
+        assertEquals(0, meterRegistry.get("loan.replica.healthy").tag("name", "replica-0").gauge().value());
+    }
+
+    @Test
+    void connectionFailureFallsBackToThePrimary() {
+        first.update(0, MAX_LAG);
+        doReturn(Mono.error(new IllegalStateException("connection refused"))).when(firstFactory).create();
+
+        StepVerifier.create(replicas.create()).expectNext(primaryConnection).verifyComplete();
+
+        assertFalse(first.isHealthy());
+    }
+
+    @Test
+    void failedHealthCheckTakesReplicaOutOfRotation() {
+        first.update(0, MAX_LAG);
+        doReturn(Mono.error(new IllegalStateException("connection refused"))).when(firstFactory).create();
+
+        StepVerifier.create(replicas.check(first, Duration.ofSeconds(1))).verifyComplete();
+
+        assertFalse(first.isHealthy());
+        assertEquals(0, meterRegistry.get("loan.replica.healthy").tag("name", "replica-0").gauge().value());
+    }
+}
@@ -0,0 +1,57 @@
+package com.afrisol.LoanService.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReplicaReadAspectTest {
+
+    private Reads reads;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Reads());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ReplicaReadAspect());
+        reads = proxyFactory.getProxy();
+    }
+
+    @Test
+    void annotatedReadsPreferReplicas() {
+        StepVerifier.create(reads.replicaRead()).expectNext(DatabaseTarget.REPLICA).verifyComplete();
+        StepVerifier.create(reads.replicaReads()).expectNext(DatabaseTarget.REPLICA).verifyComplete();
+    }
+
+    @Test
+    void otherOperationsStayOnThePrimary() {
+        StepVerifier.create(reads.write()).expectNext(DatabaseTarget.PRIMARY).verifyComplete();
+    }
+
+    @Test
+    void strongConsistencyOverridesTheAnnotation() {
+        StepVerifier.create(reads.replicaRead()
+                        .contextWrite(context -> context.put(DatabaseTarget.CONTEXT_KEY, DatabaseTarget.PRIMARY)))
+                .expectNext(DatabaseTarget.PRIMARY)
+                .verifyComplete();
+    }
+
+    static class Reads {
+
+        @ReplicaRead
+        public Mono<DatabaseTarget> replicaRead() {
+            return Mono.deferContextual(context -> Mono.just(DatabaseTarget.of(context)));
+        }
+
+        @ReplicaRead
+        public Flux<DatabaseTarget> replicaReads() {
+            return Flux.deferContextual(context -> Flux.just(DatabaseTarget.of(context)));
+        }
+
+        public Mono<DatabaseTarget> write() {
+            return Mono.deferContextual(context -> Mono.just(DatabaseTarget.of(context)));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.IdempotencyProperties;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.exception.CustomException;
+import com.afrisol.LoanService.model.IdempotencyRecord;
+import com.afrisol.LoanService.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.claim(anyString(), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(Mono.just(1));
+        when(repository.complete(anyString(), anyString())).thenReturn(Mono.just(1));
+        when(repository.release(anyString())).thenReturn(Mono.just(1));
+        idempotencyService = new IdempotencyService(repository, new IdempotencyProperties(), objectMapper,
+                transactionalOperator, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void retryReturnsStoredResponseWithoutRunningTheActionAgain() {
+        StepVerifier.create(execute("key-1", "PROD123"))
+                .assertNext(loan -> assertEquals(1, loan.getLoanId()))
+                .verifyComplete();
+        StepVerifier.create(execute("key-1", "PROD123"))
+                .assertNext(loan -> assertEquals(1, loan.getLoanId()))
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).claim(eq("key-1"), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class));
+        verify(repository, times(1)).complete(eq("key-1"), anyString());
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneExecution() {
+        Sinks.One<LoanResponseDTO> response = Sinks.one();
+        Mono<LoanResponseDTO> first = idempotencyService.execute("key-2", "POST /loans", "PROD123",
+                LoanResponseDTO.class, () -> {
+                    executions.incrementAndGet();
+                    return response.asMono();
+                });
+        Mono<LoanResponseDTO> second = idempotencyService.execute("key-2", "POST /loans", "PROD123",
+                LoanResponseDTO.class, () -> {
+                    executions.incrementAndGet();
+                    return Mono.just(LoanResponseDTO.builder().loanId(2).build());
+                });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.tryEmitValue(LoanResponseDTO.builder().loanId(1).build()))
+                .assertNext(both -> {
+                    assertEquals(1, both.getT1().getLoanId());
+                    assertEquals(1, both.getT2().getLoanId());
+                })
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        StepVerifier.create(execute("key-3", "PROD123")).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(execute("key-3", "PROD999"))
+                .expectErrorMatches(e -> e instanceof CustomException
+                        && ((CustomException) e).getStatus() == HttpStatus.UNPROCESSABLE_ENTITY)
+                .verify();
+    }
+
+    @Test
+    void storedResponseFromAnotherInstanceIsReplayed() {
+        String fingerprint = idempotencyService.fingerprint("POST /loans", "PROD123");
+        when(repository.claim(eq("key-4"), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(Mono.just(0));
+        when(repository.findById("key-4")).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .idempotencyKey("key-4")
+                .fingerprint(fingerprint)
+                .responseBody("{\"loanId\":7}")
+                .build()));
+
+        StepVerifier.create(execute("key-4", "PROD123"))
+                .assertNext(loan -> assertEquals(7, loan.getLoanId()))
+                .verifyComplete();
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void requestInFlightElsewhereConflicts() {
+        when(repository.claim(eq("key-5"), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(Mono.just(0));
+        when(repository.findById("key-5")).thenReturn(Mono.just(IdempotencyRecord.builder().idempotencyKey("key-5").build()));
+
+        StepVerifier.create(execute("key-5", "PROD123"))
+                .expectErrorMatches(e -> e instanceof CustomException
+                        && ((CustomException) e).getStatus() == HttpStatus.CONFLICT)
+                .verify();
+    }
+
+    @Test
+    void failedActionReleasesTheKeySoARetryRunsAgain() {
+        StepVerifier.create(idempotencyService.execute("key-6", "POST /loans", "PROD123", LoanResponseDTO.class,
+                        () -> Mono.error(new IllegalArgumentException("bad loan"))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(execute("key-6", "PROD123")).expectNextCount(1).verifyComplete();
+
+        verify(repository, times(1)).release("key-6");
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void blankKeyIsRejected() {
+        StepVerifier.create(execute(" ", "PROD123"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(repository);
+    }
+
+    private Mono<LoanResponseDTO> execute(String key, String productId) {
+        return idempotencyService.execute(key, "POST /loans", productId, LoanResponseDTO.class, () -> {
+            executions.incrementAndGet();
+            return Mono.just(LoanResponseDTO.builder().loanId(1).productId(productId).build());
+        });
+    }
+}
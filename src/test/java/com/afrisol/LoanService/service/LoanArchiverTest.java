@@ -0,0 +1,105 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.ArchiveProperties;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LoanArchiverTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private ArchiveProperties archiveProperties = new ArchiveProperties();
+
+    @InjectMocks
+    private LoanArchiver loanArchiver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanOutbox.recordRemoved(any(), anyList())).thenReturn(Mono.empty());
+        archiveProperties.setBatchSize(2);
+    }
+
+    @Test
+    void archivesInBatchesUntilABatchComesBackShort() {
+        when(loanRepository.archiveClosedLoans(any(OffsetDateTime.class), eq(2)))
+                .thenReturn(Flux.just(1, 2))
+                .thenReturn(Flux.just(3, 4))
+                .thenReturn(Flux.just(5));
+
+        OffsetDateTime before = OffsetDateTime.now().minusDays(90);
+        StepVerifier.create(loanArchiver.archiveClosedLoans())
+                .expectNext(5L)
+                .verifyComplete();
+        OffsetDateTime after = OffsetDateTime.now().minusDays(90);
+
+        verify(loanRepository, times(3)).archiveClosedLoans(
+                argThat(cutoff -> !cutoff.isBefore(before) && !cutoff.isAfter(after)), eq(2));
+        verify(loanOutbox).recordRemoved(LoanEventType.ARCHIVED, List.of(1, 2));
+        verify(loanOutbox).recordRemoved(LoanEventType.ARCHIVED, List.of(5));
+        verify(transactionalOperator, times(3)).transactional(any(Mono.class));
+    }
+
+    @Test
+    void stopsAfterMaxBatches() {
+        archiveProperties.setMaxBatches(2);
+        when(loanRepository.archiveClosedLoans(any(OffsetDateTime.class), eq(2))).thenReturn(Flux.just(1, 2));
+
+        StepVerifier.create(loanArchiver.archiveClosedLoans())
+                .expectNext(4L)
+                .verifyComplete();
+
+        verify(loanRepository, times(2)).archiveClosedLoans(any(OffsetDateTime.class), eq(2));
+    }
+
+    @Test
+    void disabledArchiverDoesNothing() {
+        archiveProperties.setEnabled(false);
+
+        StepVerifier.create(loanArchiver.archiveClosedLoans())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    void failedOutboxWriteStopsTheRun() {
+        when(loanRepository.archiveClosedLoans(any(OffsetDateTime.class), eq(2))).thenReturn(Flux.just(1, 2));
+        when(loanOutbox.recordRemoved(LoanEventType.ARCHIVED, List.of(1, 2)))
+                .thenReturn(Mono.error(new RuntimeException("outbox down")));
+
+        StepVerifier.create(loanArchiver.archiveClosedLoans())
+                .expectErrorMessage("outbox down")
+                .verify();
+    }
+}
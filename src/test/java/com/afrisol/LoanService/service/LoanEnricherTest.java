@@ -0,0 +1,100 @@
+package com.afrisol.LoanService.service;
+
+import com.afrisol.LoanService.config.ExternalServiceProperties;
+import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.external.Customer;
+import com.afrisol.LoanService.external.Product;
+import com.afrisol.LoanService.external.ReferenceDataClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class LoanEnricherTest {
+
+    @Mock
+    private ReferenceDataClient<Customer> customerClient;
+
+    @Mock
+    private ReferenceDataClient<Product> productClient;
+
+    private LoanEnricher loanEnricher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExternalServiceProperties properties = new ExternalServiceProperties();
+        properties.getCustomer().setBatchSize(2);
+        properties.getProduct().setBatchSize(2);
+        loanEnricher = new LoanEnricher(customerClient, productClient, properties);
+    }
+
+    @Test
+    void enrichLooksUpEachPageOnceAndCopiesLoans() {
+        LoanResponseDTO first = LoanResponseDTO.builder().loanId(1).customerId("CUST1").productId("PROD1").build();
+        LoanResponseDTO second = LoanResponseDTO.builder().loanId(2).customerId("CUST1").productId("PROD2").build();
+        when(customerClient.getAll(any())).thenReturn(Mono.just(Map.of("CUST1", Customer.builder().customerId("CUST1").firstName("Ada").build())));
+        when(productClient.getAll(any())).thenReturn(Mono.just(Map.of("PROD1", Product.builder().productId("PROD1").name("Solar Home 100").build())));
+
+        StepVerifier.create(loanEnricher.enrich(List.of(first, second), EnumSet.allOf(LoanExpansion.class)))
+                .assertNext(loans -> {
+                    assertEquals("Ada", loans.get(0).getCustomer().getFirstName());
+                    assertEquals("Solar Home 100", loans.get(0).getProduct().getName());
+                    assertEquals("Ada", loans.get(1).getCustomer().getFirstName());
+                    assertNull(loans.get(1).getProduct());
+                })
+                .verifyComplete();
+
+        assertNull(first.getCustomer());
+        verify(customerClient, times(1)).getAll(any());
+        verify(productClient, times(1)).getAll(any());
+    }
+
+    @Test
+    void enrichOnlyCallsRequestedClients() {
+        LoanResponseDTO loan = LoanResponseDTO.builder().loanId(1).customerId("CUST1").productId("PROD1").build();
+        when(customerClient.getAll(any())).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(loanEnricher.enrich(loan, Set.of(LoanExpansion.CUSTOMER)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void enrichStreamInBatches() {
+        when(customerClient.getAll(any())).thenReturn(Mono.just(Map.of()));
+        Flux<LoanResponseDTO> loans = Flux.range(1, 5)
+                .map(i -> LoanResponseDTO.builder().loanId(i).customerId("CUST" + i).build());
+
+        StepVerifier.create(loanEnricher.enrich(loans, Set.of(LoanExpansion.CUSTOMER)))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        verify(customerClient, times(3)).getAll(any());
+        verify(customerClient).getAll(argThat(ids -> ids.contains("CUST5") && ids.size() == 1));
+    }
+
+    @Test
+    void parseExpansions() {
+        assertEquals(EnumSet.allOf(LoanExpansion.class), LoanExpansion.parse("customer, PRODUCT"));
+        assertEquals(EnumSet.noneOf(LoanExpansion.class), LoanExpansion.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> LoanExpansion.parse("customer,branch"));
+    }
+}
@@ -1,24 +1,66 @@
 package com.afrisol.LoanService.service;
 
+import com.afrisol.LoanService.cache.CaffeineLoanCache;
+import com.afrisol.LoanService.cache.LoanCache;
+import com.afrisol.LoanService.config.BulkIngestionProperties;
+import com.afrisol.LoanService.config.ConcurrencyRetryProperties;
+import com.afrisol.LoanService.config.ExportProperties;
+import com.afrisol.LoanService.config.PaginationProperties;
+import com.afrisol.LoanService.dto.BulkLoanResultDTO;
+import com.afrisol.LoanService.dto.CustomerLoanSummaryDTO;
+import com.afrisol.LoanService.dto.LoanFilterDTO;
+import com.afrisol.LoanService.dto.LoanPageDTO;
 import com.afrisol.LoanService.dto.LoanRequestDTO;
 import com.afrisol.LoanService.dto.LoanResponseDTO;
+import com.afrisol.LoanService.dto.LoanView;
+import com.afrisol.LoanService.dto.RepaymentRequestDTO;
+import com.afrisol.LoanService.dto.StatusTransitionRequestDTO;
+import com.afrisol.LoanService.exception.CustomException;
+import com.afrisol.LoanService.exception.LoanNotFoundException;
+import com.afrisol.LoanService.exception.LoanPreconditionFailedException;
+import com.afrisol.LoanService.exception.LoanVersionConflictException;
 import com.afrisol.LoanService.model.Loan;
+import com.afrisol.LoanService.model.LoanEventType;
+import com.afrisol.LoanService.model.LoanRepayment;
 import com.afrisol.LoanService.model.Status;
+import com.afrisol.LoanService.outbox.LoanOutbox;
+import com.afrisol.LoanService.repository.LoanRepaymentRepository;
 import com.afrisol.LoanService.repository.LoanRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class LoanServiceImplTest {
@@ -26,15 +68,51 @@ class LoanServiceImplTest {
     @Mock
     private LoanRepository loanRepository;
 
+    @Mock
+    private LoanRepaymentRepository loanRepaymentRepository;
+
+    @Mock
+    private LoanOutbox loanOutbox;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Spy
+    private ExportProperties exportProperties = new ExportProperties();
+
+    @Spy
+    private BulkIngestionProperties bulkIngestionProperties = new BulkIngestionProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private LoanCache loanCache = new CaffeineLoanCache(Caffeine.newBuilder().buildAsync());
+
+    @Spy
+    private ConcurrencyRetryProperties retryProperties = new ConcurrencyRetryProperties();
+
+    @Spy
+    private Scheduler blockingScheduler = Schedulers.immediate();
+
     @InjectMocks
     private LoanServiceImpl loanService;
 
     private Loan sampleLoan;
+    private LoanView sampleView;
     private LoanRequestDTO sampleRequestDTO;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanOutbox.record(any(), any())).thenReturn(Mono.empty());
+        when(loanOutbox.recordAll(any(), anyList())).thenReturn(Mono.empty());
+        when(loanOutbox.recordRemoved(any(), anyList())).thenReturn(Mono.empty());
+        when(loanOutbox.changeVersion()).thenReturn(Mono.just("0-0-0"));
 
         // Sample Loan object
         sampleLoan = Loan.builder()
@@ -50,8 +128,13 @@ class LoanServiceImplTest {
                 .productId("PROD123")
                 .customerId("CUST123")
                 .status(Status.ACTIVE)
+                .version(1L)
                 .build();
 
+        sampleView = new LoanView(1, sampleLoan.getStartDate(), sampleLoan.getLoanEndDate(), 1_000_000L, 550, 200_000L,
+                sampleLoan.getTargetCompletionDate(), sampleLoan.getPayOffDate(), 1_000L, "PROD123", "CUST123",
+                Status.ACTIVE, 1L);
+
         // Sample LoanRequestDTO object
         sampleRequestDTO = LoanRequestDTO.builder()
                 .startDate(LocalDate.now())
@@ -79,60 +162,619 @@ class LoanServiceImplTest {
                 .verifyComplete();
 
         verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(loanOutbox, times(1)).record(LoanEventType.CREATED, sampleLoan);
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
     }
 
     @Test
-    void updateLoan() {
-        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(sampleLoan));
+    void addLoanFailsWhenOutboxWriteFails() {
         when(loanRepository.save(any(Loan.class))).thenReturn(Mono.just(sampleLoan));
+        when(loanOutbox.record(LoanEventType.CREATED, sampleLoan)).thenReturn(Mono.error(new RuntimeException("outbox down")));
+
+        StepVerifier.create(loanService.addLoan(sampleRequestDTO, "req-123"))
+                .expectErrorMessage("outbox down")
+                .verify();
+    }
+
+    @Test
+    void updateLoan() {
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), isNull())).thenReturn(Mono.just(sampleLoan));
 
-        Mono<LoanResponseDTO> result = loanService.updateLoan(sampleRequestDTO, 1, "req-123");
+        Mono<LoanResponseDTO> result = loanService.updateLoan(sampleRequestDTO, 1, null, "req-123");
 
         StepVerifier.create(result)
                 .expectNextMatches(response -> response.getDailyRate().equals(sampleLoan.getDailyRate()))
                 .verifyComplete();
 
+        verify(loanRepository, times(1)).updateReturning(eq(1), any(Loan.class), isNull());
+        verify(loanRepository, never()).findById(anyInt());
+        verify(loanCache, times(1)).invalidate(1);
+        verify(loanOutbox, times(1)).record(LoanEventType.UPDATED, sampleLoan);
+    }
+
+    @Test
+    void updateLoanNotFound() {
+        when(loanRepository.updateReturning(eq(9), any(Loan.class), isNull())).thenReturn(Mono.empty());
+
+        StepVerifier.create(loanService.updateLoan(sampleRequestDTO, 9, null, "req-123"))
+                .expectError(LoanNotFoundException.class)
+                .verify();
+
+        verify(loanCache, never()).invalidate(9);
+    }
+
+    @Test
+    void updateLoanWithStaleVersionFailsPrecondition() {
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), eq(List.of(1L)))).thenReturn(Mono.empty());
+        when(loanRepository.existsById(1)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(loanService.updateLoan(sampleRequestDTO, 1, List.of(1L), "req-123"))
+                .expectError(LoanPreconditionFailedException.class)
+                .verify();
+    }
+
+    @Test
+    void updateJoiningCallerTransactionEvictsOnlyAfterCallerCommits() {
+        List<String> events = new ArrayList<>();
+        TransactionalOperator operator = TransactionalOperator.create(new RecordingTransactionManager(events));
+        LoanServiceImpl service = new LoanServiceImpl(loanRepository, paginationProperties, exportProperties,
+                bulkIngestionProperties, validator, loanCache, retryProperties, loanRepaymentRepository, loanOutbox, operator,
+                blockingScheduler);
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), isNull())).thenReturn(Mono.just(sampleLoan));
+        doAnswer(invocation -> events.add("evict")).when(loanCache).invalidate(1);
+
+        // The idempotency service stores the response in the same transaction as the write
+        Mono<LoanResponseDTO> idempotentWrite = service.updateLoan(sampleRequestDTO, 1, null, "req-123")
+                .doOnNext(response -> events.add("store response"))
+                .as(operator::transactional);
+
+        StepVerifier.create(idempotentWrite).expectNextCount(1).verifyComplete();
+        assertEquals(List.of("begin", "store response", "commit", "evict"), events);
+    }
+
+    @Test
+    void rolledBackUpdateDoesNotEvict() {
+        List<String> events = new ArrayList<>();
+        TransactionalOperator operator = TransactionalOperator.create(new RecordingTransactionManager(events));
+        LoanServiceImpl service = new LoanServiceImpl(loanRepository, paginationProperties, exportProperties,
+                bulkIngestionProperties, validator, loanCache, retryProperties, loanRepaymentRepository, loanOutbox, operator,
+                blockingScheduler);
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), isNull())).thenReturn(Mono.just(sampleLoan));
+
+        Mono<LoanResponseDTO> failedStore = service.updateLoan(sampleRequestDTO, 1, null, "req-123")
+                .flatMap(response -> Mono.<LoanResponseDTO>error(new RuntimeException("store failed")))
+                .as(operator::transactional);
+
+        StepVerifier.create(failedStore).expectErrorMessage("store failed").verify();
+        assertEquals(List.of("begin", "rollback"), events);
+        verify(loanCache, never()).invalidate(any());
+    }
+
+    @Test
+    void mergeLoanRetriesOnConcurrentModification() {
+        retryProperties.setMinBackoff(Duration.ofMillis(1));
+        LoanRequestDTO patch = LoanRequestDTO.builder().amountReceived(BigDecimal.valueOf(2500)).build();
+        when(loanRepository.findById(eq(1))).thenAnswer(invocation -> Mono.just(copyOf(sampleLoan)));
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), eq(List.of(1L))))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.just(sampleLoan));
+        when(loanRepository.existsById(1)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(loanService.mergeLoan(patch, 1, null, "req-123"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(loanRepository, times(2)).findById(1);
+        verify(loanRepository, times(2)).updateReturning(eq(1), argThat(loan ->
+                BigDecimal.valueOf(2500).equals(loan.getAmountReceived())), eq(List.of(1L)));
+    }
+
+    @Test
+    void mergeLoanWithoutIfMatchConflictsWhenNotRetried() {
+        retryProperties.setEnabled(false);
+        when(loanRepository.findById(eq(1))).thenAnswer(invocation -> Mono.just(copyOf(sampleLoan)));
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), eq(List.of(1L)))).thenReturn(Mono.empty());
+        when(loanRepository.existsById(1)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(loanService.mergeLoan(new LoanRequestDTO(), 1, null, "req-123"))
+                .expectError(LoanVersionConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void mergeLoanPatchesOverdueLoan() {
+        Loan overdue = copyOf(sampleLoan);
+        overdue.setStartDate(LocalDate.now().minusMonths(3));
+        overdue.setLoanEndDate(LocalDate.now().minusDays(10));
+        overdue.setTargetCompletionDate(LocalDate.now().minusDays(10));
+        overdue.setPayOffDate(LocalDate.now().minusDays(5));
+        LoanRequestDTO patch = LoanRequestDTO.builder().status(Status.CANCELLED).build();
+        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(overdue));
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), eq(List.of(1L)))).thenReturn(Mono.just(overdue));
+
+        StepVerifier.create(loanService.mergeLoan(patch, 1, null, "req-123"))
+                .expectNextMatches(response -> response.getStatus() == Status.CANCELLED)
+                .verifyComplete();
+    }
+
+    @Test
+    void mergeLoanRejectsPastDateInPatch() {
+        LoanRequestDTO patch = LoanRequestDTO.builder().loanEndDate(LocalDate.now().minusDays(1)).build();
+        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(copyOf(sampleLoan)));
+
+        StepVerifier.create(loanService.mergeLoan(patch, 1, null, "req-123"))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException && e.getMessage().startsWith("loanEndDate"))
+                .verify();
+
+        verify(loanRepository, never()).updateReturning(any(), any(), any());
+    }
+
+    @Test
+    void updateLoanWithOnlyWeakIfMatchFailsPrecondition() {
+        when(loanRepository.updateReturning(eq(1), any(Loan.class), eq(List.of()))).thenReturn(Mono.empty());
+        when(loanRepository.existsById(1)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(loanService.updateLoan(sampleRequestDTO, 1, List.of(), "req-123"))
+                .expectError(LoanPreconditionFailedException.class)
+                .verify();
+    }
+
+    @Test
+    void mergeLoanWithIfMatchDoesNotRetry() {
+        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(copyOf(sampleLoan)));
+
+        StepVerifier.create(loanService.mergeLoan(new LoanRequestDTO(), 1, List.of(5L), "req-123"))
+                .expectError(LoanPreconditionFailedException.class)
+                .verify();
+
         verify(loanRepository, times(1)).findById(1);
-        verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(loanRepository, never()).updateReturning(any(), any(), any());
     }
 
     @Test
     void deleteLoan() {
-        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(sampleLoan));
-        when(loanRepository.delete(any(Loan.class))).thenReturn(Mono.empty());
+        when(loanRepository.deleteByLoanId(eq(1))).thenReturn(Mono.just(1));
 
         Mono<Void> result = loanService.deleteLoan(1, "req-123");
 
         StepVerifier.create(result)
                 .verifyComplete();
 
-        verify(loanRepository, times(1)).findById(1);
-        verify(loanRepository, times(1)).delete(any(Loan.class));
+        verify(loanRepository, times(1)).deleteByLoanId(1);
+        verify(loanRepository, never()).findById(anyInt());
+        verify(loanCache, times(1)).invalidate(1);
+        verify(loanOutbox, times(1)).recordRemoved(LoanEventType.DELETED, List.of(1));
     }
 
     @Test
-    void getAllLoans() {
-        when(loanRepository.findAll()).thenReturn(Flux.just(sampleLoan));
+    void deleteLoanNotFound() {
+        when(loanRepository.deleteByLoanId(eq(9))).thenReturn(Mono.just(0));
+
+        StepVerifier.create(loanService.deleteLoan(9, "req-123"))
+                .expectError(LoanNotFoundException.class)
+                .verify();
+
+        verify(loanOutbox, never()).recordRemoved(any(), anyList());
+    }
+
+    @Test
+    void getLoan() {
+        when(loanRepository.findViewById(eq(1))).thenReturn(Mono.just(sampleView));
 
-        Flux<LoanResponseDTO> result = loanService.getAllLoans("req-123");
+        Mono<LoanView> result = loanService.getLoan(1, "req-123");
 
         StepVerifier.create(result)
-                .expectNextMatches(response -> response.getProductId().equals("PROD123"))
+                .expectNextMatches(view -> view.loanEndDate().equals(sampleLoan.getLoanEndDate()))
                 .verifyComplete();
 
-        verify(loanRepository, times(1)).findAll();
+        verify(loanRepository, times(1)).findViewById(1);
+        verify(loanRepository, never()).findById(anyInt());
     }
 
     @Test
-    void getLoan() {
-        when(loanRepository.findById(eq(1))).thenReturn(Mono.just(sampleLoan));
+    void getLoansReturnsNextCursorWhenMoreRowsExist() {
+        LoanView secondView = viewWithId(2);
+        LoanView thirdView = viewWithId(3);
+        LoanFilterDTO filter = LoanFilterDTO.builder().status(Status.ACTIVE).build();
+        when(loanRepository.findPage(eq(filter), isNull(), eq(3))).thenReturn(Flux.just(sampleView, secondView, thirdView));
 
-        Mono<LoanResponseDTO> result = loanService.getLoan(1, "req-123");
+        Mono<LoanPageDTO<LoanView>> result = loanService.getLoans(filter, null, 2, "req-123");
 
         StepVerifier.create(result)
-                .expectNextMatches(response -> response.getLoanEndDate().equals(sampleLoan.getLoanEndDate()))
+                .assertNext(page -> {
+                    assertEquals(2, page.getLoans().size());
+                    assertEquals(Integer.valueOf(2), LoanCursor.decode(page.getNextCursor()));
+                    assertEquals("0-0-0", page.getChangeVersion());
+                })
                 .verifyComplete();
+    }
 
-        verify(loanRepository, times(1)).findById(1);
+    @Test
+    void getLoansResumesAfterCursorAndCapsPageSize() {
+        paginationProperties.setMaxSize(10);
+        when(loanRepository.findPage(any(), eq(5), eq(11))).thenReturn(Flux.just(sampleView));
+
+        Mono<LoanPageDTO<LoanView>> result = loanService.getLoans(new LoanFilterDTO(), LoanCursor.encode(5), 1000, "req-123");
+
+        StepVerifier.create(result)
+                .assertNext(page -> {
+                    assertEquals(1, page.getLoans().size());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getLoansRejectsInvalidCursor() {
+        StepVerifier.create(loanService.getLoans(new LoanFilterDTO(), "not-a-cursor", null, "req-123"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(loanRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getLoansChangeVersionReadsOutbox() {
+        when(loanOutbox.changeVersion()).thenReturn(Mono.just("12-1-40"));
+
+        StepVerifier.create(loanService.getLoansChangeVersion("req-123"))
+                .expectNext("12-1-40")
+                .verifyComplete();
+
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    void exportLoansStreamsWithConfiguredFetchSize() {
+        exportProperties.setFetchSize(100);
+        LoanFilterDTO filter = LoanFilterDTO.builder().productId("PROD123").build();
+        when(loanRepository.streamLoanViews(eq(filter), eq(100))).thenReturn(Flux.just(sampleView));
+
+        StepVerifier.create(loanService.exportLoans(filter, "req-123"))
+                .expectNextMatches(view -> view.loanId() == 1)
+                .verifyComplete();
+
+        verify(loanRepository, times(1)).streamLoanViews(filter, 100);
+    }
+
+    @Test
+    void addLoansInsertsValidItemsInChunksAndReportsErrors() {
+        bulkIngestionProperties.setChunkSize(2);
+        LoanRequestDTO invalidRequest = LoanRequestDTO.builder().productId("PROD123").build();
+        when(loanRepository.insertAll(anyList()))
+                .thenReturn(Flux.just(10))
+                .thenReturn(Flux.just(11));
+
+        Mono<BulkLoanResultDTO> result = loanService.addLoans(
+                Flux.just(sampleRequestDTO, invalidRequest, sampleRequestDTO), "req-123");
+
+        StepVerifier.create(result)
+                .assertNext(summary -> {
+                    assertEquals(2, summary.getAccepted());
+                    assertEquals(1, summary.getRejected());
+                    assertEquals(Integer.valueOf(10), summary.getItems().get(0).getLoanId());
+                    assertNull(summary.getItems().get(1).getLoanId());
+                    assertEquals("Customer ID cannot be blank", summary.getItems().get(1).getErrors().get("customerId"));
+                    assertEquals(Integer.valueOf(11), summary.getItems().get(2).getLoanId());
+                })
+                .verifyComplete();
+
+        verify(loanRepository, times(2)).insertAll(anyList());
+        verify(loanOutbox, times(2)).recordAll(eq(LoanEventType.CREATED), argThat(loans -> loans.size() == 1));
+    }
+
+    @Test
+    void addLoansRejectsOversizedRequestBeforeInserting() {
+        bulkIngestionProperties.setChunkSize(1);
+        bulkIngestionProperties.setMaxItems(2);
+
+        StepVerifier.create(loanService.addLoans(
+                        Flux.just(sampleRequestDTO, sampleRequestDTO, sampleRequestDTO), "req-123"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(loanRepository, never()).insertAll(anyList());
+        verify(loanOutbox, never()).recordAll(any(), anyList());
+    }
+
+    @Test
+    void addLoansReportsChunkFailurePerItem() {
+        when(loanRepository.insertAll(anyList())).thenReturn(Flux.error(new RuntimeException("connection reset")));
+
+        StepVerifier.create(loanService.addLoans(Flux.just(sampleRequestDTO), "req-123"))
+                .assertNext(summary -> {
+                    assertEquals(0, summary.getAccepted());
+                    assertEquals("connection reset", summary.getItems().get(0).getErrors().get("error"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void transitionStatusUpdatesChunksAndReportsSkippedLoans() {
+        bulkIngestionProperties.setTransitionChunkSize(2);
+        Loan first = copyOf(sampleLoan);
+        Loan third = copyOf(sampleLoan);
+        third.setLoanId(3);
+        when(loanRepository.transitionStatus(eq(List.of(1, 2)), eq(Status.CANCELLED))).thenReturn(Flux.just(first));
+        when(loanRepository.transitionStatus(eq(List.of(3)), eq(Status.CANCELLED))).thenReturn(Flux.just(third));
+        StatusTransitionRequestDTO request = StatusTransitionRequestDTO.builder()
+                .targetStatus(Status.CANCELLED)
+                .loanIds(List.of(3, 1, 2, 1))
+                .build();
+
+        StepVerifier.create(loanService.transitionStatus(request, "req-123"))
+                .assertNext(progress -> {
+                    assertEquals(1, progress.getTransitioned());
+                    assertEquals(List.of(2), progress.getSkippedLoanIds());
+                    assertEquals(Integer.valueOf(2), progress.getLastLoanId());
+                })
+                .assertNext(progress -> assertEquals(2, progress.getTotalTransitioned()))
+                .assertNext(summary -> {
+                    assertTrue(summary.isComplete());
+                    assertEquals(2, summary.getTotalTransitioned());
+                    assertEquals(1, summary.getTotalSkipped());
+                })
+                .verifyComplete();
+
+        verify(loanOutbox, times(2)).recordAll(eq(LoanEventType.UPDATED), argThat(loans -> loans.size() == 1));
+        verify(loanCache, times(1)).invalidate(3);
+    }
+
+    @Test
+    void transitionStatusByFilterPagesThroughMatchingIds() {
+        bulkIngestionProperties.setTransitionChunkSize(2);
+        LoanFilterDTO filter = LoanFilterDTO.builder().status(Status.CREATED).startDateTo(LocalDate.now()).build();
+        when(loanRepository.findIdPage(eq(filter), isNull(), eq(2))).thenReturn(Flux.just(1, 2));
+        when(loanRepository.findIdPage(eq(filter), eq(2), eq(2))).thenReturn(Flux.just(5));
+        when(loanRepository.transitionStatus(anyList(), eq(Status.ACTIVE))).thenReturn(Flux.empty());
+
+        StepVerifier.create(loanService.transitionStatus(StatusTransitionRequestDTO.builder()
+                        .targetStatus(Status.ACTIVE).filter(filter).build(), "req-123"))
+                .expectNextCount(2)
+                .assertNext(summary -> assertEquals(3, summary.getTotalSkipped()))
+                .verifyComplete();
+
+        verify(loanRepository).transitionStatus(List.of(1, 2), Status.ACTIVE);
+        verify(loanRepository).transitionStatus(List.of(5), Status.ACTIVE);
+    }
+
+    @Test
+    void transitionStatusReportsFailedChunksAndContinues() {
+        bulkIngestionProperties.setTransitionChunkSize(1);
+        when(loanRepository.transitionStatus(eq(List.of(1)), any())).thenReturn(Flux.error(new RuntimeException("deadlock detected")));
+        when(loanRepository.transitionStatus(eq(List.of(2)), any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(loanService.transitionStatus(StatusTransitionRequestDTO.builder()
+                        .targetStatus(Status.ACTIVE).loanIds(List.of(1, 2)).build(), "req-123"))
+                .assertNext(progress -> assertEquals("deadlock detected", progress.getError()))
+                .expectNextCount(1)
+                .assertNext(summary -> assertEquals(1, summary.getTotalFailed()))
+                .verifyComplete();
+    }
+
+    @Test
+    void transitionStatusRequiresEitherIdsOrFilter() {
+        StepVerifier.create(loanService.transitionStatus(StatusTransitionRequestDTO.builder()
+                        .targetStatus(Status.ACTIVE).build(), "req-123"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(loanRepository, never()).transitionStatus(anyList(), any());
+    }
+
+    @Test
+    void getLoanServesRepeatedReadsFromCache() {
+        when(loanRepository.findViewById(eq(1))).thenReturn(Mono.just(sampleView));
+
+        StepVerifier.create(loanService.getLoan(1, "req-1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(loanService.getLoan(1, "req-2")).expectNextCount(1).verifyComplete();
+
+        verify(loanRepository, times(1)).findViewById(1);
+    }
+
+    @Test
+    void getLoanDoesNotCacheMissingLoans() {
+        when(loanRepository.findViewById(eq(7))).thenReturn(Mono.empty());
+        when(loanRepository.findArchivedViewById(eq(7))).thenReturn(Mono.empty());
+
+        StepVerifier.create(loanService.getLoan(7, "req-1")).expectError(LoanNotFoundException.class).verify();
+        StepVerifier.create(loanService.getLoan(7, "req-2")).expectError(LoanNotFoundException.class).verify();
+
+        verify(loanRepository, times(2)).findViewById(7);
+    }
+
+    @Test
+    void getLoanFallsBackToArchive() {
+        LoanView archivedLoan = new LoanView(1, sampleView.startDate(), sampleView.loanEndDate(), 1_000_000L, 550,
+                200_000L, sampleView.targetCompletionDate(), null, 1_000L, "PROD123", "CUST123", Status.CANCELLED, 3L);
+        when(loanRepository.findViewById(eq(1))).thenReturn(Mono.empty());
+        when(loanRepository.findArchivedViewById(eq(1))).thenReturn(Mono.just(archivedLoan));
+
+        StepVerifier.create(loanService.getLoan(1, "req-123"))
+                .expectNextMatches(view -> view.status() == Status.CANCELLED)
+                .verifyComplete();
+    }
+
+    @Test
+    void getLoanSkipsArchiveForLiveLoans() {
+        when(loanRepository.findViewById(eq(1))).thenReturn(Mono.just(sampleView));
+
+        StepVerifier.create(loanService.getLoan(1, "req-123")).expectNextCount(1).verifyComplete();
+
+        verify(loanRepository, never()).findArchivedViewById(anyInt());
+    }
+
+    @Test
+    void postRepaymentAppliesIncrementInOneStatement() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-1")
+                .amount(BigDecimal.valueOf(500))
+                .build();
+        when(loanRepository.applyRepayment(eq(1), eq("PAY-1"), eq(BigDecimal.valueOf(500)), any(LocalDate.class)))
+                .thenReturn(Mono.just(sampleLoan));
+
+        StepVerifier.create(loanService.postRepayment(1, repayment, "req-123"))
+                .expectNextMatches(response -> response.getLoanId().equals(1))
+                .verifyComplete();
+
+        verify(loanRepaymentRepository, never()).findById(anyString());
+        verify(loanCache, times(1)).invalidate(1);
+    }
+
+    @Test
+    void postRepaymentReplayReturnsCurrentLoan() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-1")
+                .amount(BigDecimal.valueOf(500))
+                .build();
+        when(loanRepository.applyRepayment(eq(1), eq("PAY-1"), any(), any())).thenReturn(Mono.empty());
+        when(loanRepaymentRepository.findById("PAY-1")).thenReturn(Mono.just(
+                new LoanRepayment("PAY-1", 1, new BigDecimal("500.00"), LocalDate.now())));
+        when(loanRepository.findById(1)).thenReturn(Mono.just(sampleLoan));
+
+        StepVerifier.create(loanService.postRepayment(1, repayment, "req-123"))
+                .expectNextMatches(response -> response.getAmountReceived().equals(sampleLoan.getAmountReceived()))
+                .verifyComplete();
+
+        verify(loanCache, never()).invalidate(1);
+    }
+
+    @Test
+    void postRepaymentRejectsReusedReference() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-1")
+                .amount(BigDecimal.valueOf(900))
+                .build();
+        when(loanRepository.applyRepayment(eq(1), eq("PAY-1"), any(), any())).thenReturn(Mono.empty());
+        when(loanRepaymentRepository.findById("PAY-1")).thenReturn(Mono.just(
+                new LoanRepayment("PAY-1", 1, BigDecimal.valueOf(500), LocalDate.now())));
+
+        StepVerifier.create(loanService.postRepayment(1, repayment, "req-123"))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    @Test
+    void postRepaymentToMissingLoan() {
+        RepaymentRequestDTO repayment = RepaymentRequestDTO.builder()
+                .paymentReference("PAY-2")
+                .amount(BigDecimal.valueOf(500))
+                .build();
+        when(loanRepository.applyRepayment(eq(9), eq("PAY-2"), any(), any())).thenReturn(Mono.empty());
+        when(loanRepaymentRepository.findById("PAY-2")).thenReturn(Mono.empty());
+
+        StepVerifier.create(loanService.postRepayment(9, repayment, "req-123"))
+                .expectError(LoanNotFoundException.class)
+                .verify();
+    }
+
+    private LoanView viewWithId(int loanId) {
+        return new LoanView(loanId, sampleView.startDate(), sampleView.loanEndDate(), sampleView.totalLoanAmount(),
+                sampleView.loanInterestRate(), sampleView.amountReceived(), sampleView.targetCompletionDate(),
+                sampleView.payOffDate(), sampleView.dailyRate(), sampleView.productId(), sampleView.customerId(),
+                sampleView.status(), sampleView.version());
+    }
+
+    private static Loan copyOf(Loan loan) {
+        return new Loan(loan.getLoanId(), loan.getStartDate(), loan.getLoanEndDate(), loan.getTotalLoanAmount(),
+                loan.getLoanInterestRate(), loan.getAmountReceived(), loan.getTargetCompletionDate(),
+                loan.getPayOffDate(), loan.getDailyRate(), loan.getProductId(), loan.getCustomerId(),
+                loan.getStatus(), loan.getVersion());
+    }
+
+    @Test
+    void getCustomerLoans() {
+        when(loanRepository.findByCustomerIdOrderByLoanId("CUST123")).thenReturn(Flux.just(sampleLoan));
+
+        StepVerifier.create(loanService.getCustomerLoans("CUST123", null, "req-123"))
+                .expectNextMatches(response -> "CUST123".equals(response.getCustomerId()))
+                .verifyComplete();
+
+        verify(loanRepository, never()).findAll();
+    }
+
+    @Test
+    void getCustomerLoansByStatus() {
+        when(loanRepository.findByCustomerIdAndStatusOrderByLoanId("CUST123", Status.ACTIVE)).thenReturn(Flux.just(sampleLoan));
+
+        StepVerifier.create(loanService.getCustomerLoans("CUST123", Status.ACTIVE, "req-123"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void getCustomerLoanSummary() {
+        CustomerLoanSummaryDTO summary = CustomerLoanSummaryDTO.builder()
+                .loanCount(3)
+                .totalPrincipal(BigDecimal.valueOf(30000))
+                .totalReceived(BigDecimal.valueOf(5000))
+                .activeCount(2)
+                .build();
+        when(loanRepository.summarizeByCustomerId("CUST123")).thenReturn(Mono.just(summary));
+
+        StepVerifier.create(loanService.getCustomerLoanSummary("CUST123", "req-123"))
+                .assertNext(result -> {
+                    assertEquals("CUST123", result.getCustomerId());
+                    assertEquals(3, result.getLoanCount());
+                    assertEquals(2, result.getActiveCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getCustomerLoanSummaryRejectsBlankCustomer() {
+        StepVerifier.create(loanService.getCustomerLoanSummary(" ", "req-123"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    // Minimal transaction manager that joins an active transaction and records begin, commit and rollback
+    private static final class RecordingTransactionManager extends AbstractReactiveTransactionManager {
+
+        private final List<String> events;
+
+        private RecordingTransactionManager(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new RecordingTransaction(synchronizationManager.hasResource(this));
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((RecordingTransaction) transaction).existing();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.fromRunnable(() -> {
+                synchronizationManager.bindResource(this, Boolean.TRUE);
+                events.add("begin");
+            });
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("commit"));
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("rollback"));
+        }
+
+        @Override
+        protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+                                                      Object transaction) {
+            return Mono.fromRunnable(() -> synchronizationManager.unbindResourceIfPossible(this));
+        }
+
+        private record RecordingTransaction(boolean existing) {
+        }
     }
 }
@@ -0,0 +1,43 @@
+package com.afrisol.LoanService.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HundredthsTest {
+
+    @Test
+    void formatsTwoDecimalPlaces() {
+        assertEquals("0.00", format(0));
+        assertEquals("0.05", format(5));
+        assertEquals("12.50", format(1250));
+        assertEquals("125000.00", format(12_500_000));
+        assertEquals("-1234.05", format(-123_405));
+    }
+
+    @Test
+    void formatWritesFromTheOffset() {
+        char[] buffer = new char[12];
+        buffer[0] = '[';
+
+        int end = Hundredths.format(4250_75, buffer, 1);
+
+        assertEquals("[4250.75", new String(buffer, 0, end));
+    }
+
+    @Test
+    void convertsToAndFromDecimals() {
+        assertEquals(new BigDecimal("4250.75"), Hundredths.toDecimal(4250_75));
+        assertEquals(4250_75, Hundredths.of(new BigDecimal("4250.75")));
+        assertEquals(10_000_00, Hundredths.of(BigDecimal.valueOf(10000)));
+        assertThrows(ArithmeticException.class, () -> Hundredths.of(new BigDecimal("1.005")));
+    }
+
+    private static String format(long hundredths) {
+        char[] buffer = new char[24];
+        return new String(buffer, 0, Hundredths.format(hundredths, buffer, 0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.afrisol.LoanService.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestIdsTest {
+
+    @Test
+    void nextReturnsRandomVersion4Uuids() {
+        UUID first = UUID.fromString(RequestIds.next());
+        UUID second = UUID.fromString(RequestIds.next());
+
+        assertEquals(4, first.version());
+        assertEquals(2, first.variant());
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void currentPrefersTheRequestIdInTheMdc() {
+        MDC.put(RequestIds.KEY, "abc-123");
+        try {
+            assertEquals("abc-123", RequestIds.current());
+        } finally {
+            MDC.remove(RequestIds.KEY);
+        }
+        assertEquals(4, UUID.fromString(RequestIds.current()).version());
+    }
+
+    @Test
+    void acceptsOnlyShortPlainRequestIds() {
+        assertTrue(RequestIds.isAcceptable("3f2a9c1e-trace.01"));
+        assertFalse(RequestIds.isAcceptable(""));
+        assertFalse(RequestIds.isAcceptable("line\nbreak"));
+        assertFalse(RequestIds.isAcceptable("x".repeat(129)));
+        assertFalse(RequestIds.isAcceptable(null));
+    }
+}
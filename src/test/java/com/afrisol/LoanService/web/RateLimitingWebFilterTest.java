@@ -0,0 +1,161 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.adapter.ForwardedHeaderTransformer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class RateLimitingWebFilterTest {
+
+    @Mock
+    private LoadShedder loadShedder;
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(passed::incrementAndGet);
+
+    private RateLimitingWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties.getDefaultBucket().setCapacity(2);
+        properties.getDefaultBucket().setRefillPerSecond(1);
+        // A frozen clock keeps the buckets from refilling during the test
+        filter = new RateLimitingWebFilter(properties, loadShedder, meterRegistry, () -> 0L);
+    }
+
+    @Test
+    void rejectsAClientOnceItsBucketIsEmpty() {
+        MockServerWebExchange rejected = get("/api/v1/loans/1", "partner");
+        run(get("/api/v1/loans/1", "partner"));
+        run(get("/api/v1/loans/1", "partner"));
+        run(rejected);
+
+        assertEquals(2, passed.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(1, meterRegistry.counter("loan.ratelimit.rejected", "endpoint", "read", "reason", "rate_limited").count());
+    }
+
+    @Test
+    void bucketsAreKeptPerClientWithConfiguredOverrides() {
+        RateLimitProperties.Bucket batch = new RateLimitProperties.Bucket();
+        batch.setCapacity(5);
+        properties.getClients().put("batch-job", batch);
+
+        for (int i = 0; i < 5; i++) {
+            run(get("/api/v1/loans/1", "batch-job"));
+        }
+        run(get("/api/v1/loans/1", "mobile"));
+
+        assertEquals(6, passed.get());
+    }
+
+    @Test
+    void unknownKeysShareTheRemoteAddressBucket() {
+        MockServerWebExchange rejected = get("/api/v1/loans/1", "rotated-3");
+        run(get("/api/v1/loans/1", "rotated-1"));
+        run(get("/api/v1/loans/1", "rotated-2"));
+        run(rejected);
+
+        assertEquals(2, passed.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    }
+
+    @Test
+    void unkeyedClientsBehindAProxyAreBucketedByForwardedAddress() {
+        ServerWebExchange rejected = forwardedGet("203.0.113.7");
+        run(forwardedGet("203.0.113.7"));
+        run(forwardedGet("203.0.113.7"));
+        run(rejected);
+        run(forwardedGet("198.51.100.4"));
+
+        assertEquals(3, passed.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    }
+
+    @Test
+    void limitsConcurrentRequestsPerEndpointClass() {
+        properties.getDefaultBucket().setCapacity(100);
+        properties.getMaxConcurrency().put(EndpointClass.LIST, 1);
+        filter = new RateLimitingWebFilter(properties, loadShedder, meterRegistry, () -> 0L);
+        Sinks.Empty<Void> firstDone = Sinks.empty();
+
+        StepVerifier.create(filter.filter(get("/api/v1/loans", "partner"), exchange -> firstDone.asMono()))
+                .then(() -> {
+                    MockServerWebExchange second = get("/api/v1/loans/export", "partner");
+                    run(second);
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getResponse().getStatusCode());
+                    run(get("/api/v1/loans/1", "partner"));
+                    firstDone.tryEmitEmpty();
+                })
+                .verifyComplete();
+
+        run(get("/api/v1/loans", "partner"));
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    void shedsListRequestsWhenOverloaded() {
+        when(loadShedder.isOverloaded()).thenReturn(true);
+        MockServerWebExchange list = get("/api/v1/customers/CUST123/loans", "partner");
+
+        run(list);
+        run(get("/api/v1/loans/1", "partner"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, list.getResponse().getStatusCode());
+        assertEquals("2", list.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void ignoresNonApiPaths() {
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+            run(exchange);
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+
+        assertEquals(5, passed.get());
+        verifyNoInteractions(loadShedder);
+    }
+
+    private void run(ServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+    }
+
+    // Every request arrives from the same load balancer address, as it would behind a proxy
+    private static ServerWebExchange forwardedGet(String clientAddress) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/loans/1")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+                .header("X-Forwarded-For", clientAddress)
+                .build();
+        return MockServerWebExchange.from(request).mutate()
+                .request(new ForwardedHeaderTransformer().apply(request))
+                .build();
+    }
+
+    private static MockServerWebExchange get(String path, String apiKey) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header("X-API-Key", apiKey));
+    }
+}
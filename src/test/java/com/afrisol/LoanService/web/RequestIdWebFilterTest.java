@@ -0,0 +1,47 @@
+package com.afrisol.LoanService.web;
+
+import com.afrisol.LoanService.util.RequestIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RequestIdWebFilterTest {
+
+    private final RequestIdWebFilter filter = new RequestIdWebFilter();
+    private final AtomicReference<String> seen = new AtomicReference<>();
+    private final WebFilterChain chain = exchange -> Mono.deferContextual(context -> {
+        seen.set(context.get(RequestIds.KEY));
+        return Mono.empty();
+    });
+
+    @Test
+    void reusesInboundRequestId() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/loans/1").header("X-Request-ID", "trace-42"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals("trace-42", seen.get());
+        assertEquals("trace-42", exchange.getResponse().getHeaders().getFirst("X-Request-ID"));
+    }
+
+    @Test
+    void generatesRequestIdWhenMissingOrUnacceptable() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/loans/1").header("X-Request-ID", "bad id with spaces"));
+
+        filter.filter(exchange, chain).block();
+
+        assertNotEquals("bad id with spaces", seen.get());
+        assertEquals(4, UUID.fromString(seen.get()).version());
+        assertEquals(seen.get(), exchange.getResponse().getHeaders().getFirst("X-Request-ID"));
+    }
+}
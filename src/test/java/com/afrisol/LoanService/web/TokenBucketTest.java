@@ -0,0 +1,34 @@
+package com.afrisol.LoanService.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstUpToCapacityThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        long wait = bucket.tryConsume(0);
+
+        assertTrue(wait > 0 && wait <= SECOND);
+    }
+
+    @Test
+    void refillsOverTimeWithoutExceedingCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertTrue(bucket.tryConsume(100 * SECOND) > 0);
+    }
+}